@@ -0,0 +1,36 @@
+package mlq.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the allocation profiler ({@code -prof gc}) and stores the
+ * results as JSON, so runs before and after a change can be compared.
+ * It takes the same arguments as {@code benchmarks.jar}, for instance
+ * {@code java -cp benchmarks.jar mlq.bench.GcProfiledRun Simulation -p processes=1000},
+ * and writes {@code results-gc.json} unless {@code -rff} names another file.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+public class GcProfiledRun
+{
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException
+    {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(commandLine.getResult().orElse("results-gc.json"))
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,275 @@
+package mlq.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+
+/**
+ * Access to the simulator classes from the benchmarks.
+ * The simulator lives in the unnamed package, which cannot be imported from a named
+ * package, and JMH does not accept benchmarks in the unnamed package. This class looks
+ * the simulator classes up by name once and exposes their hot paths through constant
+ * {@link MethodHandle}s, which the JIT inlines like direct calls.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+final class Mlq
+{
+    private static final MethodHandle NEW_TABLE;
+    private static final MethodHandle TABLE_ADD;
+    private static final MethodHandle NEW_SCHEDULER;
+    private static final MethodHandle SET_ENGINE;
+    private static final MethodHandle SET_ANALYTIC_FAST_PATH;
+    private static final MethodHandle RESET;
+    private static final MethodHandle SIMULATE;
+    private static final MethodHandle GET_RESULTS;
+    private static final MethodHandle READ_TABLE;
+    private static final MethodHandle WRITE_RESULTS;
+    private static final MethodHandle NEW_BUCKET_QUEUE;
+    private static final MethodHandle NEW_HEAP_QUEUE;
+    private static final MethodHandle QUEUE_ADD;
+    private static final MethodHandle QUEUE_POLL;
+    private static final Object EVENT_ENGINE;
+
+    static
+    {
+        try
+        {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> table = Class.forName("ProcessTable");
+            Class<?> scheduler = Class.forName("SchedulerMLQ");
+            Class<?> engine = Class.forName("SchedulerMLQ$Engine");
+            Class<?> queue = Class.forName("ReadyQueue");
+
+            NEW_TABLE = lookup.findConstructor(table, MethodType.methodType(void.class, int.class))
+                    .asType(MethodType.methodType(Object.class, int.class));
+            TABLE_ADD = lookup.findVirtual(table, "add", MethodType.methodType(int.class,
+                            String.class, long.class, long.class, int.class, int.class))
+                    .asType(MethodType.methodType(int.class, Object.class,
+                            String.class, int.class, int.class, int.class, int.class));
+            NEW_SCHEDULER = lookup.findConstructor(scheduler, MethodType.methodType(void.class, table))
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            SET_ENGINE = lookup.findVirtual(scheduler, "setEngine", MethodType.methodType(void.class, engine))
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            SET_ANALYTIC_FAST_PATH = lookup.findVirtual(scheduler, "setAnalyticFastPath",
+                            MethodType.methodType(void.class, boolean.class))
+                    .asType(MethodType.methodType(void.class, Object.class, boolean.class));
+            RESET = lookup.findVirtual(scheduler, "reset", MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(void.class, Object.class));
+            SIMULATE = lookup.findVirtual(scheduler, "simulate", MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(void.class, Object.class));
+            GET_RESULTS = lookup.findVirtual(scheduler, "getResults", MethodType.methodType(List.class))
+                    .asType(MethodType.methodType(List.class, Object.class));
+            READ_TABLE = lookup.findStatic(Class.forName("MappedTraceReader"), "read",
+                            MethodType.methodType(table, String.class))
+                    .asType(MethodType.methodType(Object.class, String.class));
+            WRITE_RESULTS = lookup.findStatic(Class.forName("Main"), "writeResults",
+                    MethodType.methodType(String.class, String.class, List.class));
+            NEW_BUCKET_QUEUE = lookup.findConstructor(Class.forName("BucketReadyQueue"),
+                            MethodType.methodType(void.class, int.class, int.class))
+                    .asType(MethodType.methodType(Object.class, int.class, int.class));
+            NEW_HEAP_QUEUE = lookup.findConstructor(Class.forName("HeapReadyQueue"),
+                            MethodType.methodType(void.class, int.class))
+                    .asType(MethodType.methodType(Object.class, int.class));
+            QUEUE_ADD = lookup.findVirtual(queue, "add", MethodType.methodType(void.class, int.class, long.class))
+                    .asType(MethodType.methodType(void.class, Object.class, int.class, int.class));
+            QUEUE_POLL = lookup.findVirtual(queue, "poll", MethodType.methodType(int.class))
+                    .asType(MethodType.methodType(int.class, Object.class));
+            EVENT_ENGINE = engine.getField("EVENT").get(null);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Mlq()
+    {
+    }
+
+    /** @return A new, empty {@code ProcessTable}. */
+    static Object newTable(int capacity)
+    {
+        try
+        {
+            return (Object) NEW_TABLE.invokeExact(capacity);
+        }
+        catch (Throwable t)
+        {
+            throw rethrow(t);
+        }
+    }
+
+    /** Calls {@code ProcessTable.add}. */
+    static int add(Object table, String label, int burstTime, int arrivalTime, int queueId, int priority)
+    {
+        try
+        {
+            return (int) TABLE_ADD.invokeExact(table, label, burstTime, arrivalTime, queueId, priority);
+        }
+        catch (Throwable t)
+        {
+            throw rethrow(t);
+        }
+    }
+
+    /** @return A new {@code SchedulerMLQ} over the table, using the event engine. */
+    static Object newScheduler(Object table)
+    {
+        try
+        {
+            Object scheduler = (Object) NEW_SCHEDULER.invokeExact(table);
+            SET_ENGINE.invokeExact(scheduler, EVENT_ENGINE);
+            return scheduler;
+        }
+        catch (Throwable t)
+        {
+            throw rethrow(t);
+        }
+    }
+
+    /** Calls {@code SchedulerMLQ.setAnalyticFastPath}. */
+    static void setAnalyticFastPath(Object scheduler, boolean analyticFastPath)
+    {
+        try
+        {
+            SET_ANALYTIC_FAST_PATH.invokeExact(scheduler, analyticFastPath);
+        }
+        catch (Throwable t)
+        {
+            throw rethrow(t);
+        }
+    }
+
+    /** Calls {@code SchedulerMLQ.reset}. */
+    static void reset(Object scheduler)
+    {
+        try
+        {
+            RESET.invokeExact(scheduler);
+        }
+        catch (Throwable t)
+        {
+            throw rethrow(t);
+        }
+    }
+
+    /** Calls {@code SchedulerMLQ.simulate}. */
+    static void simulate(Object scheduler)
+    {
+        try
+        {
+            SIMULATE.invokeExact(scheduler);
+        }
+        catch (Throwable t)
+        {
+            throw rethrow(t);
+        }
+    }
+
+    /** Calls {@code SchedulerMLQ.getResults}. */
+    static List<?> getResults(Object scheduler)
+    {
+        try
+        {
+            return (List<?>) GET_RESULTS.invokeExact(scheduler);
+        }
+        catch (Throwable t)
+        {
+            throw rethrow(t);
+        }
+    }
+
+    /** Calls {@code MappedTraceReader.read}. */
+    static Object readTable(String fileName)
+    {
+        try
+        {
+            return (Object) READ_TABLE.invokeExact(fileName);
+        }
+        catch (Throwable t)
+        {
+            throw rethrow(t);
+        }
+    }
+
+    /** Calls {@code Main.writeResults}. */
+    static String writeResults(String fileName, List<?> results)
+    {
+        try
+        {
+            return (String) WRITE_RESULTS.invokeExact(fileName, (List) results);
+        }
+        catch (Throwable t)
+        {
+            throw rethrow(t);
+        }
+    }
+
+    /** @return A new {@code BucketReadyQueue}. */
+    static Object newBucketQueue(int minPriority, int maxPriority)
+    {
+        try
+        {
+            return (Object) NEW_BUCKET_QUEUE.invokeExact(minPriority, maxPriority);
+        }
+        catch (Throwable t)
+        {
+            throw rethrow(t);
+        }
+    }
+
+    /** @return A new {@code HeapReadyQueue}. */
+    static Object newHeapQueue(int capacity)
+    {
+        try
+        {
+            return (Object) NEW_HEAP_QUEUE.invokeExact(capacity);
+        }
+        catch (Throwable t)
+        {
+            throw rethrow(t);
+        }
+    }
+
+    /** Calls {@code ReadyQueue.add}. */
+    static void queueAdd(Object queue, int id, int priority)
+    {
+        try
+        {
+            QUEUE_ADD.invokeExact(queue, id, priority);
+        }
+        catch (Throwable t)
+        {
+            throw rethrow(t);
+        }
+    }
+
+    /** Calls {@code ReadyQueue.poll}. */
+    static int queuePoll(Object queue)
+    {
+        try
+        {
+            return (int) QUEUE_POLL.invokeExact(queue);
+        }
+        catch (Throwable t)
+        {
+            throw rethrow(t);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable t)
+    {
+        if (t instanceof RuntimeException r)
+        {
+            throw r;
+        }
+        if (t instanceof Error e)
+        {
+            throw e;
+        }
+        throw new IllegalStateException(t);
+    }
+}
@@ -0,0 +1,67 @@
+package mlq.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Formatting and writing of the output file ({@code Main.writeResults}).
+ * The results are simulated once per trial; only the writing is measured.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class OutputBenchmark
+{
+    @Param({"1000", "100000", "10000000"})
+    int processes;
+
+    private Path dir;
+    private String inputName;
+    private List<?> results;
+
+    @Setup
+    public void simulate() throws IOException
+    {
+        Object scheduler = Mlq.newScheduler(
+                new Workload(processes, Workload.Burst.UNIFORM, Workload.QueueMix.BALANCED, 5).toTable());
+        Mlq.simulate(scheduler);
+        results = Mlq.getResults(scheduler);
+        dir = Files.createTempDirectory("mlq-bench-");
+        inputName = dir.resolve("bench.txt").toString();
+    }
+
+    @TearDown
+    public void deleteOutput() throws IOException
+    {
+        Files.deleteIfExists(dir.resolve("salida_bench.txt"));
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public String write()
+    {
+        return Mlq.writeResults(inputName, results);
+    }
+}
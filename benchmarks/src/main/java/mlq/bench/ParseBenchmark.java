@@ -0,0 +1,59 @@
+package mlq.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing of an input file ({@code MappedTraceReader.read}, used by {@code Main.readTable}).
+ * The file is generated once per trial in the temporary directory.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ParseBenchmark
+{
+    @Param({"1000", "100000", "10000000"})
+    int processes;
+
+    private Path file;
+
+    @Setup
+    public void writeInput() throws IOException
+    {
+        file = Files.createTempFile("mlq-bench-", ".txt");
+        new Workload(processes, Workload.Burst.UNIFORM, Workload.QueueMix.BALANCED, 5).write(file);
+    }
+
+    @TearDown
+    public void deleteInput() throws IOException
+    {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Object read()
+    {
+        return Mlq.readTable(file.toString());
+    }
+}
@@ -0,0 +1,67 @@
+package mlq.bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Ready queue operations: every process is added and then polled, as in a level
+ * that fills up and drains. Compares the bucket queue with the heap queue.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadyQueueBenchmark
+{
+    @Param({"1000", "100000"})
+    int processes;
+
+    @Param({"BUCKET", "HEAP"})
+    String queue;
+
+    private int[] priority;
+
+    @Setup
+    public void generate()
+    {
+        SplittableRandom random = new SplittableRandom(42);
+        priority = new int[processes];
+        for (int i = 0; i < processes; i++)
+        {
+            priority[i] = random.nextInt(1, 6);
+        }
+    }
+
+    @Benchmark
+    public long addThenPoll()
+    {
+        Object q = queue.equals("BUCKET") ? Mlq.newBucketQueue(1, 5) : Mlq.newHeapQueue(processes);
+        for (int id = 0; id < processes; id++)
+        {
+            Mlq.queueAdd(q, id, priority[id]);
+        }
+        long sum = 0;
+        for (int i = 0; i < processes; i++)
+        {
+            sum += Mlq.queuePoll(q);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,70 @@
+package mlq.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full simulation ({@code SchedulerMLQ.simulate()}) over synthetic workloads.
+ * The table and the scheduler are built once per trial; every invocation restores the
+ * processes with {@code SchedulerMLQ.reset()}, which allocates nothing, and simulates
+ * them again. The analytic fast path is off by default, so the simultaneous arrivals of
+ * {@code meanGap=0} measure the simulation loop too; {@code -p analyticFastPath=true}
+ * measures the closed form instead.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SimulationBenchmark
+{
+    @Param({"1000", "100000", "10000000"})
+    int processes;
+
+    @Param({"UNIFORM", "EXPONENTIAL", "PARETO"})
+    Workload.Burst burst;
+
+    @Param({"BALANCED", "INTERACTIVE", "BATCH"})
+    Workload.QueueMix mix;
+
+    /** Mean time between arrivals; 0 means every process arrives at t=0. */
+    @Param({"0", "5", "20"})
+    double meanGap;
+
+    /** Lets simultaneous arrivals be scheduled in closed form instead of by the loop. */
+    @Param({"false"})
+    boolean analyticFastPath;
+
+    private Object scheduler;
+
+    @Setup(Level.Trial)
+    public void prepare()
+    {
+        scheduler = Mlq.newScheduler(new Workload(processes, burst, mix, meanGap).toTable());
+        Mlq.setAnalyticFastPath(scheduler, analyticFastPath);
+    }
+
+    @Benchmark
+    public Object simulate()
+    {
+        Mlq.reset(scheduler);
+        Mlq.simulate(scheduler);
+        return scheduler;
+    }
+}
@@ -0,0 +1,129 @@
+package mlq.bench;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic, reproducible workload for the benchmarks.
+ * Processes are generated from a fixed seed into primitive arrays, so every fork
+ * and every invocation simulates exactly the same trace.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+public final class Workload
+{
+    /** Distribution of the burst times. */
+    public enum Burst
+    {
+        /** Uniform between 1 and 20. */
+        UNIFORM,
+        /** Exponential with mean 10. */
+        EXPONENTIAL,
+        /** Pareto (alpha 1.5, minimum 2): many short jobs and a few very long ones. */
+        PARETO
+    }
+
+    /** Share of processes in each of the three queues. */
+    public enum QueueMix
+    {
+        /** One third in each queue. */
+        BALANCED(1, 1, 1),
+        /** Mostly interactive jobs in Q1. */
+        INTERACTIVE(6, 3, 1),
+        /** Mostly batch jobs in Q3. */
+        BATCH(1, 3, 6);
+
+        /** Relative weight of each queue. */
+        final int[] weights;
+
+        QueueMix(int... weights)
+        {
+            this.weights = weights;
+        }
+    }
+
+    /** Seed used for every workload. */
+    private static final long SEED = 20241009L;
+
+    final int size;
+    final int[] burstTime;
+    final int[] arrivalTime;
+    final int[] queueId;
+    final int[] priority;
+
+    /**
+     * Generates a workload.
+     *
+     * @param size    The number of processes.
+     * @param burst   The distribution of the burst times.
+     * @param mix     The share of processes in each queue.
+     * @param meanGap The mean time between arrivals (Poisson arrivals); 0 puts every arrival at t=0.
+     */
+    Workload(int size, Burst burst, QueueMix mix, double meanGap)
+    {
+        SplittableRandom random = new SplittableRandom(SEED);
+        this.size = size;
+        this.burstTime = new int[size];
+        this.arrivalTime = new int[size];
+        this.queueId = new int[size];
+        this.priority = new int[size];
+
+        int totalWeight = mix.weights[0] + mix.weights[1] + mix.weights[2];
+        double clock = 0;
+        for (int i = 0; i < size; i++)
+        {
+            burstTime[i] = switch (burst)
+            {
+                case UNIFORM -> random.nextInt(1, 21);
+                case EXPONENTIAL -> 1 + (int) (-10 * Math.log(1 - random.nextDouble()));
+                case PARETO -> (int) Math.min(1_000_000, 2 / Math.pow(1 - random.nextDouble(), 1 / 1.5));
+            };
+            if (meanGap > 0)
+            {
+                clock += -meanGap * Math.log(1 - random.nextDouble());
+            }
+            arrivalTime[i] = (int) clock;
+            int pick = random.nextInt(totalWeight);
+            queueId[i] = pick < mix.weights[0] ? 1 : pick < mix.weights[0] + mix.weights[1] ? 2 : 3;
+            priority[i] = random.nextInt(1, 6);
+        }
+    }
+
+    /**
+     * Builds a new {@code ProcessTable} with the workload.
+     *
+     * @return The table.
+     */
+    Object toTable()
+    {
+        Object table = Mlq.newTable(size);
+        for (int i = 0; i < size; i++)
+        {
+            Mlq.add(table, "P" + i, burstTime[i], arrivalTime[i], queueId[i], priority[i]);
+        }
+        return table;
+    }
+
+    /**
+     * Writes the workload in the mlq input format.
+     *
+     * @param file The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    void write(Path file) throws IOException
+    {
+        try (BufferedWriter out = Files.newBufferedWriter(file))
+        {
+            out.write("# label; BT; AT; Q; Pr\n");
+            for (int i = 0; i < size; i++)
+            {
+                out.write("P" + i + "; " + burstTime[i] + "; " + arrivalTime[i] + "; "
+                        + queueId[i] + "; " + priority[i] + "\n");
+            }
+        }
+    }
+}
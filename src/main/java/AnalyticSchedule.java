@@ -0,0 +1,410 @@
+import java.util.Arrays;
+
+/**
+ * Closed-form schedules for degenerate inputs, used by {@link SchedulerMLQ} instead of
+ * its simulation loop. Two cases are recognised (never in MLFQ mode nor with context
+ * switch overhead):
+ * <ul>
+ * <li>Every process arrives at the same instant (as in the sample files). Nothing arrives
+ *     later, so the levels run one after the other; inside a level the processes with
+ *     the same ordering key run before those with a lower key, either one after another
+ *     or, when the quantum is shorter than some of their bursts, in round robin, whose
+ *     completion times have a closed form.</li>
+ * <li>Every process is in the same level, its policy is not SRTF and its quantum is at
+ *     least the longest burst. Nothing is ever preempted or sliced, so each process runs
+ *     whole in the order the ready queue gives when the CPU frees up.</li>
+ * </ul>
+ * Both cost O(n log n) and give exactly the times of the simulation loop.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+public class AnalyticSchedule
+{
+    /** No closed form applies. */
+    private static final int NONE = 0;
+    /** Every process arrives at the same instant. */
+    private static final int SIMULTANEOUS = 1;
+    /** Every process is in one non-SRTF level whose quantum fits the longest burst. */
+    private static final int SINGLE_LEVEL = 2;
+
+    /**
+     * Utility class, not instantiable.
+     */
+    private AnalyticSchedule()
+    {
+    }
+
+    /**
+     * Tells whether one of the degenerate cases applies to a table, without allocating,
+     * so the caller only builds the result arrays when {@link #schedule} will fill them.
+     *
+     * @param table  The table of processes (only read).
+     * @param config The levels with their policies and quanta.
+     * @return true if {@link #schedule} computes the schedule of the table.
+     */
+    static boolean applies(ProcessTable table, SchedulerConfig config)
+    {
+        return classify(table, config) != NONE;
+    }
+
+    /**
+     * Computes the schedule of a table in closed form, if one of the degenerate cases applies.
+     *
+     * @param table        The table of processes (only read).
+     * @param config       The levels with their policies and quanta.
+     * @param arrivalOrder The ids of the table sorted by arrival time (stable).
+     * @param firstStart   Filled with the time each process first gets the CPU, by id.
+     * @param completion   Filled with the completion time of each process, by id.
+     * @return true if the schedule was computed, false if no closed form applies
+     *         (the arrays are then left untouched).
+     */
+    static boolean schedule(ProcessTable table, SchedulerConfig config, int[] arrivalOrder,
+                            long[] firstStart, long[] completion)
+    {
+        int kind = classify(table, config);
+        if (kind == SIMULTANEOUS)
+        {
+            simultaneous(table, config, arrivalOrder, firstStart, completion);
+            return true;
+        }
+        if (kind == SINGLE_LEVEL)
+        {
+            singleLevel(table, config.getPolicy(table.queueId[0]), arrivalOrder, firstStart, completion);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Finds which degenerate case, if any, applies to a table, in one pass over it.
+     *
+     * @param table  The table of processes (only read).
+     * @param config The levels with their policies and quanta.
+     * @return {@link #SIMULTANEOUS}, {@link #SINGLE_LEVEL} or {@link #NONE}.
+     */
+    private static int classify(ProcessTable table, SchedulerConfig config)
+    {
+        int n = table.size();
+        if (n == 0 || config.isFeedback() || config.hasOverhead())
+        {
+            return NONE;
+        }
+
+        boolean sameArrival = true;
+        boolean sameQueue = true;
+        long longestBurst = 0;
+        for (int id = 0; id < n; id++)
+        {
+            int queueId = table.queueId[id];
+            if (queueId < 1 || queueId > config.getLevels())
+            {
+                // The simulation loop reports the error
+                return NONE;
+            }
+            sameArrival &= table.arrivalTime[id] == table.arrivalTime[0];
+            sameQueue &= queueId == table.queueId[0];
+            longestBurst = Math.max(longestBurst, cpuTime(table, id));
+        }
+
+        if (sameArrival)
+        {
+            return SIMULTANEOUS;
+        }
+        int level = table.queueId[0];
+        if (sameQueue && config.getPolicy(level) != Policy.SRTF && config.getSliceLimit(level) >= longestBurst)
+        {
+            return SINGLE_LEVEL;
+        }
+        return NONE;
+    }
+
+    /**
+     * Schedules processes that all arrive at the same instant, level by level.
+     * Inside a level the processes are sorted by their policy's ordering key (input order
+     * breaks ties) and every group with the same key runs before the next one: after a
+     * quantum expiry a process comes back with the same key (RR, SJF) or a better one
+     * (SRTF), so it never lets a lower key through. SRTF groups, and groups whose bursts
+     * all fit in the quantum, run one process after another; the rest run in round robin.
+     *
+     * @param table        The table of processes.
+     * @param config       The levels with their policies and quanta.
+     * @param arrivalOrder The ids of the table sorted by arrival time (stable).
+     * @param firstStart   Filled with the time each process first gets the CPU, by id.
+     * @param completion   Filled with the completion time of each process, by id.
+     */
+    private static void simultaneous(ProcessTable table, SchedulerConfig config, int[] arrivalOrder,
+                                     long[] firstStart, long[] completion)
+    {
+        int n = arrivalOrder.length;
+        int levels = config.getLevels();
+
+        // Counting sort of the ids by level, keeping the input order inside each level
+        int[] levelStart = new int[levels + 1];
+        for (int id : arrivalOrder)
+        {
+            levelStart[table.queueId[id]]++;
+        }
+        for (int level = 1; level <= levels; level++)
+        {
+            levelStart[level] += levelStart[level - 1];
+        }
+        int[] byLevel = new int[n];
+        int[] fill = Arrays.copyOf(levelStart, levels);
+        for (int id : arrivalOrder)
+        {
+            byLevel[fill[table.queueId[id] - 1]++] = id;
+        }
+
+        // The clock starts at 0, so processes "arriving" earlier wait until then
+        long time = Math.max(table.arrivalTime[arrivalOrder[0]], 0);
+        for (int level = 1; level <= levels; level++)
+        {
+            int from = levelStart[level - 1];
+            int to = levelStart[level];
+            Policy policy = config.getPolicy(level);
+            long quantum = config.getSliceLimit(level);
+
+            // Highest ordering key first (its complement is the smallest), then input order
+            long[] keys = new long[to - from];
+            for (int i = from; i < to; i++)
+            {
+                keys[i - from] = ~policy.orderingPriority(table, byLevel[i]);
+            }
+            int[] order = SchedulerMLQ.sortStable(keys);
+
+            int a = 0;
+            while (a < order.length)
+            {
+                int b = a;
+                long longest = 0;
+                while (b < order.length && keys[order[b]] == keys[order[a]])
+                {
+                    longest = Math.max(longest, cpuTime(table, byLevel[from + order[b]]));
+                    b++;
+                }
+                int[] group = new int[b - a];
+                for (int i = a; i < b; i++)
+                {
+                    group[i - a] = byLevel[from + order[i]];
+                }
+                if (policy == Policy.SRTF || quantum >= longest)
+                {
+                    time = oneAfterAnother(table, group, time, firstStart, completion);
+                }
+                else
+                {
+                    time = roundRobin(table, group, time, quantum, firstStart, completion);
+                }
+                a = b;
+            }
+        }
+    }
+
+    /**
+     * Schedules processes of a single level that never preempt nor slice each other:
+     * whenever the CPU frees up, the arrived processes join the ready queue of the level
+     * and the best one runs whole.
+     *
+     * @param table        The table of processes.
+     * @param policy       The policy of the level.
+     * @param arrivalOrder The ids of the table sorted by arrival time (stable).
+     * @param firstStart   Filled with the time each process first gets the CPU, by id.
+     * @param completion   Filled with the completion time of each process, by id.
+     */
+    private static void singleLevel(ProcessTable table, Policy policy, int[] arrivalOrder,
+                                    long[] firstStart, long[] completion)
+    {
+        ReadyQueue queue = SchedulerMLQ.createQueue(policy, table);
+        int n = arrivalOrder.length;
+        int next = 0;
+        long time = 0;
+        while (next < n || !queue.isEmpty())
+        {
+            if (queue.isEmpty())
+            {
+                time = Math.max(time, table.arrivalTime[arrivalOrder[next]]);
+            }
+            while (next < n && table.arrivalTime[arrivalOrder[next]] <= time)
+            {
+                int id = arrivalOrder[next++];
+                queue.add(id, policy.orderingPriority(table, id));
+            }
+            int id = queue.poll();
+            firstStart[id] = time;
+            time += cpuTime(table, id);
+            completion[id] = time;
+        }
+    }
+
+    /**
+     * Runs a group of processes one after another, in the given order.
+     *
+     * @param table      The table of processes.
+     * @param group      The ids, in running order.
+     * @param time       The time the first one starts.
+     * @param firstStart Filled with the time each process first gets the CPU, by id.
+     * @param completion Filled with the completion time of each process, by id.
+     * @return The time the last one finishes.
+     */
+    private static long oneAfterAnother(ProcessTable table, int[] group, long time,
+                                        long[] firstStart, long[] completion)
+    {
+        for (int id : group)
+        {
+            firstStart[id] = time;
+            time += cpuTime(table, id);
+            completion[id] = time;
+        }
+        return time;
+    }
+
+    /**
+     * Runs a group of processes that arrive together in round robin, in closed form.
+     * Process {@code j} needs {@code r = ceil(e / q)} rounds; when it finishes, every
+     * process before it in the cycle has run for {@code min(e, q r)} and every process
+     * after it for {@code min(e, q (r - 1))}. With {@code d = q (r - 1)} that is the sum of
+     * {@code min(e, d)} over the others (sorted bursts and prefix sums), plus {@code q}
+     * for each earlier process with more rounds (a Fenwick tree over the positions,
+     * filled by decreasing rounds) and {@code e - d} for each earlier one with as many.
+     *
+     * @param table      The table of processes.
+     * @param group      The ids, in cycle order.
+     * @param start      The time the first one starts.
+     * @param quantum    The quantum of the level.
+     * @param firstStart Filled with the time each process first gets the CPU, by id.
+     * @param completion Filled with the completion time of each process, by id.
+     * @return The time the last one finishes.
+     */
+    private static long roundRobin(ProcessTable table, int[] group, long start, long quantum,
+                                   long[] firstStart, long[] completion)
+    {
+        int g = group.length;
+        long[] burst = new long[g];
+        long beforeFirst = 0;
+        for (int j = 0; j < g; j++)
+        {
+            burst[j] = cpuTime(table, group[j]);
+            firstStart[group[j]] = start + beforeFirst;
+            beforeFirst += Math.min(burst[j], quantum);
+        }
+
+        long[] sorted = burst.clone();
+        Arrays.sort(sorted);
+        long[] prefix = new long[g + 1];
+        for (int i = 0; i < g; i++)
+        {
+            prefix[i + 1] = prefix[i] + sorted[i];
+        }
+
+        // Most rounds first (the negated count is the smallest), then cycle order
+        long[] negatedRounds = new long[g];
+        for (int j = 0; j < g; j++)
+        {
+            negatedRounds[j] = -((burst[j] - 1) / quantum + 1);
+        }
+        int[] byRounds = SchedulerMLQ.sortStable(negatedRounds);
+
+        int[] fenwick = new int[g + 1];
+        int a = 0;
+        while (a < g)
+        {
+            int b = a;
+            while (b < g && negatedRounds[byRounds[b]] == negatedRounds[byRounds[a]])
+            {
+                b++;
+            }
+            long rounds = -negatedRounds[byRounds[a]];
+            long done = quantum * (rounds - 1);
+
+            // Sum of min(e, done) over the group: the bursts up to done, then done for each other
+            int shorter = upperBound(sorted, done);
+            long others = prefix[shorter] + done * (g - shorter) - done;
+
+            long sameRounds = 0;
+            for (int x = a; x < b; x++)
+            {
+                int j = byRounds[x];
+                long longerBefore = count(fenwick, j);
+                completion[group[j]] = start + burst[j] + others + quantum * longerBefore
+                        + sameRounds - (x - a) * done;
+                sameRounds += burst[j];
+            }
+            for (int x = a; x < b; x++)
+            {
+                add(fenwick, byRounds[x]);
+            }
+            a = b;
+        }
+        return start + prefix[g];
+    }
+
+    /**
+     * Gets the CPU time a process takes: its burst time, or one tick if it has none.
+     *
+     * @param table The table of processes.
+     * @param id    The id of the process.
+     * @return The CPU time.
+     */
+    private static long cpuTime(ProcessTable table, int id)
+    {
+        return Math.max(table.burstTime[id], 1);
+    }
+
+    /**
+     * Counts the values of a sorted array that are not greater than a limit.
+     *
+     * @param sorted The sorted values.
+     * @param limit  The limit.
+     * @return The number of values {@code <= limit}.
+     */
+    private static int upperBound(long[] sorted, long limit)
+    {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= limit)
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Marks a position in a Fenwick tree.
+     *
+     * @param fenwick  The tree (one more entry than positions).
+     * @param position The position, from 0.
+     */
+    private static void add(int[] fenwick, int position)
+    {
+        for (int i = position + 1; i < fenwick.length; i += i & -i)
+        {
+            fenwick[i]++;
+        }
+    }
+
+    /**
+     * Counts the marked positions before a position in a Fenwick tree.
+     *
+     * @param fenwick  The tree.
+     * @param position The position, from 0 (not counted).
+     * @return The number of marked positions lower than {@code position}.
+     */
+    private static int count(int[] fenwick, int position)
+    {
+        int total = 0;
+        for (int i = position; i > 0; i -= i & -i)
+        {
+            total += fenwick[i];
+        }
+        return total;
+    }
+}
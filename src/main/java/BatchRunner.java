@@ -0,0 +1,274 @@
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Simulates many input files in one JVM launch.
+ * Every file goes through the usual pipeline (read, {@link SchedulerMLQ#simulate()},
+ * write the "salida_" file) as an independent task: reading and writing run on virtual
+ * threads, and the simulations run on a pool with one thread per core. The number of
+ * files in flight is bounded so memory stays under control. At the end a timing summary
+ * is printed with one line per file.
+ * Each task has its own {@link ProcessTable} and {@link SchedulerMLQ}, which have no
+ * shared mutable state, so the runs are safe to do concurrently.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+public class BatchRunner
+{
+    /**
+     * Timing and outcome of the simulation of one file.
+     */
+    private static class FileResult
+    {
+        /** The input file. */
+        final String file;
+        /** Number of processes read. */
+        int processes;
+        /** Time spent reading, in nanoseconds. */
+        long readNanos;
+        /** Time spent simulating, in nanoseconds. */
+        long simulateNanos;
+        /** Time spent writing, in nanoseconds. */
+        long writeNanos;
+        /** Totals of the simulation, used for the averages of the output file. */
+        MetricsSummary summary;
+        /** Error message, or null if the file was simulated successfully. */
+        String error;
+
+        /**
+         * Creates the result of a file.
+         *
+         * @param file The input file.
+         */
+        FileResult(String file)
+        {
+            this.file = file;
+        }
+    }
+
+    /**
+     * Utility class, not instantiable.
+     */
+    private BatchRunner()
+    {
+    }
+
+    /**
+     * Simulates every file selected by a directory or a glob pattern and prints a summary.
+     *
+     * @param pattern A directory (all its files except previous "salida_" and "barrido_"
+     *                outputs) or a glob such as {@code traces/mlq*.txt}.
+     */
+    public static void run(String pattern)
+    {
+        List<Path> files;
+        try
+        {
+            files = findFiles(pattern);
+        }
+        catch (IOException e)
+        {
+            System.err.println("Error buscando los archivos: " + e.getMessage());
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<FileResult> results = runAll(files, Runtime.getRuntime().availableProcessors());
+        long elapsed = System.nanoTime() - start;
+
+        printSummary(results, elapsed);
+    }
+
+    /**
+     * Simulates a list of files concurrently.
+     *
+     * @param files       The input files.
+     * @param parallelism The number of simulations that run at the same time.
+     * @return The result of every file, in the same order as {@code files}.
+     */
+    static List<FileResult> runAll(List<Path> files, int parallelism)
+    {
+        List<FileResult> results = new ArrayList<>();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        // Two files per simulation thread: one being read or written while the other runs
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+
+        try (ExecutorService io = Executors.newVirtualThreadPerTaskExecutor();
+             ExecutorService cpu = Executors.newFixedThreadPool(parallelism))
+        {
+            for (Path file : files)
+            {
+                FileResult result = new FileResult(file.toString());
+                results.add(result);
+                inFlight.acquireUninterruptibly();
+
+                CompletableFuture<Void> task = CompletableFuture
+                        .supplyAsync(() -> read(result), io)
+                        .thenApplyAsync(table -> simulate(result, table), cpu)
+                        .thenAcceptAsync(finished -> write(result, finished), io)
+                        .whenComplete((ignored, error) ->
+                        {
+                            if (error != null)
+                            {
+                                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                                result.error = cause.getMessage();
+                            }
+                            inFlight.release();
+                        });
+                tasks.add(task);
+            }
+            for (CompletableFuture<Void> task : tasks)
+            {
+                // Errors were already recorded in the file's result
+                task.handle((ignored, error) -> null).join();
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Reads an input file.
+     *
+     * @param result The result of the file, where the time is recorded.
+     * @return The processes of the file.
+     */
+    private static ProcessTable read(FileResult result)
+    {
+        long start = System.nanoTime();
+        try
+        {
+            ProcessTable table = MappedTraceReader.read(result.file);
+            result.processes = table.size();
+            return table;
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException("Error leyendo el archivo: " + e.getMessage(), e);
+        }
+        finally
+        {
+            result.readNanos = System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Simulates the processes of a file.
+     *
+     * @param result The result of the file, where the time is recorded.
+     * @param table  The processes of the file.
+     * @return The finished processes, sorted by label.
+     */
+    private static List<Process> simulate(FileResult result, ProcessTable table)
+    {
+        long start = System.nanoTime();
+        SchedulerMLQ simulator = new SchedulerMLQ(table);
+        simulator.setEngine(SchedulerMLQ.Engine.EVENT);
+        simulator.simulate();
+        List<Process> finished = simulator.getResults();
+        result.summary = simulator.getSummary();
+        result.simulateNanos = System.nanoTime() - start;
+        return finished;
+    }
+
+    /**
+     * Writes the output file of an input file.
+     *
+     * @param result   The result of the file, where the time is recorded.
+     * @param finished The finished processes.
+     */
+    private static void write(FileResult result, List<Process> finished)
+    {
+        long start = System.nanoTime();
+        try
+        {
+            Main.writeResults(result.file, finished, result.summary, null);
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException("Error escribiendo el archivo: " + e.getMessage(), e);
+        }
+        finally
+        {
+            result.writeNanos = System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Lists the input files selected by a directory or a glob pattern, sorted by name.
+     * Files whose name starts with "salida_" or "barrido_" are skipped, since they are outputs.
+     *
+     * @param pattern A directory or a glob pattern (the glob applies to the file name).
+     * @return The selected files.
+     * @throws IOException If the directory cannot be listed.
+     */
+    static List<Path> findFiles(String pattern) throws IOException
+    {
+        Path path = Paths.get(pattern);
+        Path dir;
+        PathMatcher matcher;
+        if (Files.isDirectory(path))
+        {
+            dir = path;
+            matcher = p -> true;
+        }
+        else
+        {
+            dir = path.getParent() != null ? path.getParent() : Paths.get(".");
+            matcher = dir.getFileSystem().getPathMatcher("glob:" + path.getFileName());
+        }
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir))
+        {
+            for (Path file : stream)
+            {
+                Path name = file.getFileName();
+                if (Files.isRegularFile(file) && !name.toString().startsWith("salida_")
+                        && !name.toString().startsWith("barrido_") && matcher.matches(name))
+                {
+                    files.add(file);
+                }
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+
+    /**
+     * Prints one line per file with its timings, followed by the totals.
+     *
+     * @param results The results of every file.
+     * @param elapsed The wall-clock time of the whole batch, in nanoseconds.
+     */
+    private static void printSummary(List<FileResult> results, long elapsed)
+    {
+        System.out.println("# archivo; procesos; lectura ms; simulacion ms; escritura ms");
+        int errors = 0;
+        for (FileResult r : results)
+        {
+            if (r.error != null)
+            {
+                errors++;
+                System.out.printf("%s; ERROR: %s\n", r.file, r.error);
+            }
+            else
+            {
+                System.out.printf("%s;%d;%.3f;%.3f;%.3f\n", r.file, r.processes,
+                        r.readNanos / 1e6, r.simulateNanos / 1e6, r.writeNanos / 1e6);
+            }
+        }
+        System.out.printf("Lote completado: %d archivos (%d con errores) en %.3f ms\n",
+                results.size(), errors, elapsed / 1e6);
+    }
+}
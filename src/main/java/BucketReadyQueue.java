@@ -0,0 +1,138 @@
+import java.util.Arrays;
+
+/**
+ * {@link ReadyQueue} for a small, bounded priority range (such as the documented 1 to 5).
+ * It keeps one FIFO ring buffer per priority level and a bitmask with one bit per
+ * non-empty level, so {@link #peek()}, {@link #add(int, long)} and {@link #poll()} are
+ * O(1): the best level is the highest bit set in the mask.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+public class BucketReadyQueue implements ReadyQueue
+{
+    /** Largest number of priority levels supported (one bit each in {@link #nonEmpty}). */
+    public static final int MAX_LEVELS = Long.SIZE;
+
+    /** Initial capacity of every ring buffer. */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /** Lowest priority accepted; it is stored in level 0. */
+    private final int minPriority;
+
+    /** Ring buffer of process ids of each level (capacity is always a power of two). */
+    private final int[][] buckets;
+    /** Index of the first id of each level's ring buffer. */
+    private final int[] head;
+    /** Number of ids in each level's ring buffer. */
+    private final int[] count;
+    /** Bit {@code i} is set when level {@code i} has at least one process. */
+    private long nonEmpty = 0;
+    /** Total number of ids in the queue. */
+    private int size = 0;
+
+    /**
+     * Creates an empty queue for priorities in the range {@code [minPriority, maxPriority]}.
+     *
+     * @param minPriority The lowest priority that will be added.
+     * @param maxPriority The highest priority that will be added.
+     * @throws IllegalArgumentException if the range has more than {@link #MAX_LEVELS} values.
+     */
+    public BucketReadyQueue(int minPriority, int maxPriority)
+    {
+        long levels = (long) maxPriority - minPriority + 1;
+        if (levels < 1 || levels > MAX_LEVELS)
+        {
+            throw new IllegalArgumentException("Rango de prioridades no soportado: "
+                    + minPriority + ".." + maxPriority);
+        }
+        this.minPriority = minPriority;
+        this.buckets = new int[(int) levels][INITIAL_CAPACITY];
+        this.head = new int[(int) levels];
+        this.count = new int[(int) levels];
+    }
+
+    @Override
+    public void add(int id, long priority)
+    {
+        int level = (int) (priority - minPriority);
+        int[] ring = buckets[level];
+        if (count[level] == ring.length)
+        {
+            ring = grow(level);
+        }
+        ring[(head[level] + count[level]) & (ring.length - 1)] = id;
+        count[level]++;
+        nonEmpty |= 1L << level;
+        size++;
+    }
+
+    @Override
+    public int peek()
+    {
+        if (nonEmpty == 0)
+        {
+            return -1;
+        }
+        int level = 63 - Long.numberOfLeadingZeros(nonEmpty);
+        return buckets[level][head[level]];
+    }
+
+    @Override
+    public int poll()
+    {
+        if (nonEmpty == 0)
+        {
+            return -1;
+        }
+        int level = 63 - Long.numberOfLeadingZeros(nonEmpty);
+        int[] ring = buckets[level];
+        int id = ring[head[level]];
+        head[level] = (head[level] + 1) & (ring.length - 1);
+        if (--count[level] == 0)
+        {
+            nonEmpty &= ~(1L << level);
+        }
+        size--;
+        return id;
+    }
+
+    @Override
+    public void clear()
+    {
+        Arrays.fill(head, 0);
+        Arrays.fill(count, 0);
+        nonEmpty = 0;
+        size = 0;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Doubles the ring buffer of a level, unrolling it so its first id is at index 0.
+     *
+     * @param level The level whose buffer is full.
+     * @return The new ring buffer.
+     */
+    private int[] grow(int level)
+    {
+        int[] old = buckets[level];
+        int[] ring = new int[old.length * 2];
+        int first = old.length - head[level];
+        System.arraycopy(old, head[level], ring, 0, first);
+        System.arraycopy(old, 0, ring, first, head[level]);
+        buckets[level] = ring;
+        head[level] = 0;
+        return ring;
+    }
+}
@@ -0,0 +1,239 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Simulates a trace by splitting it into busy periods and running them in parallel.
+ * When the CPU is idle and every queue is empty, what happens next depends only on the
+ * processes still to arrive, so such an instant splits the trace into independent
+ * busy periods. The CPU is never idle while a process waits and every process keeps it
+ * for its whole burst (at least one tick), so the periods are found in one pass over the
+ * arrival order: a period ends when the next arrival comes at or after the time the work
+ * admitted so far would be done.
+ * Consecutive periods are grouped into shards of a minimum size, each shard is
+ * simulated by its own {@link SchedulerMLQ} on a fork-join pool with absolute times, and
+ * the results and totals are stitched back together. They are the same as those of a
+ * single {@link SchedulerMLQ} over the whole trace, MLFQ boosts included, since a boost
+ * of empty queues moves nothing. With context switch overhead
+ * ({@link SchedulerConfig#withOverhead(int, int)}) the CPU is busy for longer than the
+ * bursts, so the periods cannot be found in advance and the trace is one shard.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+public class BusyPeriodSimulator
+{
+    /** Default smallest number of processes in a shard, so tiny periods do not cost a task each. */
+    public static final int DEFAULT_MIN_SHARD_SIZE = 1 << 12;
+
+    /** The table with all processes loaded from the file. */
+    private final ProcessTable table;
+    /** Queue topology of every shard. */
+    private final SchedulerConfig config;
+    /** All process ids sorted by arrival time. */
+    private final int[] arrivalOrder;
+    /** Smallest number of processes in a shard (the last one may be smaller). */
+    private int minShardSize = DEFAULT_MIN_SHARD_SIZE;
+
+    /** Number of busy periods found by the last simulation. */
+    private int busyPeriods = 0;
+    /** Number of shards simulated by the last simulation. */
+    private int shards = 0;
+    /** Finished processes, sorted by label. */
+    private List<Process> results = new ArrayList<>();
+    /** Running totals of the metrics of every shard. */
+    private MetricsSummary summary = new MetricsSummary();
+
+    /**
+     * Creates the simulator of a table with the default queue topology.
+     *
+     * @param table The table with all processes loaded from the file (only read).
+     */
+    public BusyPeriodSimulator(ProcessTable table)
+    {
+        this(table, SchedulerConfig.defaults());
+    }
+
+    /**
+     * Creates the simulator of a table with a custom queue topology.
+     *
+     * @param table  The table with all processes loaded from the file (only read).
+     * @param config The levels with their policies and quanta.
+     */
+    public BusyPeriodSimulator(ProcessTable table, SchedulerConfig config)
+    {
+        this.table = table;
+        this.config = config;
+        this.arrivalOrder = SchedulerMLQ.sortByArrival(table);
+    }
+
+    /**
+     * Sets the smallest number of processes in a shard. Shards are also made large enough
+     * to give each thread of the pool about four of them.
+     *
+     * @param minShardSize The smallest shard size (at least 1).
+     * @throws IllegalArgumentException If the size is not positive.
+     */
+    public void setMinShardSize(int minShardSize)
+    {
+        if (minShardSize < 1)
+        {
+            throw new IllegalArgumentException("El tamano minimo de un fragmento debe ser positivo");
+        }
+        this.minShardSize = minShardSize;
+    }
+
+    /**
+     * Runs the simulation on the common fork-join pool.
+     *
+     * @throws IllegalArgumentException If a process belongs to a queue that does not exist.
+     */
+    public void simulate()
+    {
+        simulate(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs the simulation: finds the busy periods, simulates the shards on a pool and
+     * stitches their results.
+     *
+     * @param pool The pool that runs the shards.
+     * @throws IllegalArgumentException If a process belongs to a queue that does not exist.
+     */
+    public void simulate(ForkJoinPool pool)
+    {
+        int[] starts = !config.hasOverhead() ? findBusyPeriods(table, arrivalOrder)
+                : arrivalOrder.length == 0 ? new int[0] : new int[]{0};
+        busyPeriods = starts.length;
+        int minSize = Math.max(minShardSize, arrivalOrder.length / (4 * pool.getParallelism()));
+
+        List<ForkJoinTask<SchedulerMLQ>> tasks = new ArrayList<>();
+        int from = 0;
+        for (int i = 1; i <= starts.length; i++)
+        {
+            int to = i < starts.length ? starts[i] : arrivalOrder.length;
+            if (to - from >= minSize || to == arrivalOrder.length)
+            {
+                int shardFrom = from;
+                tasks.add(pool.submit(() -> simulateShard(shardFrom, to)));
+                from = to;
+            }
+        }
+        shards = tasks.size();
+
+        results = new ArrayList<>(arrivalOrder.length);
+        summary = new MetricsSummary();
+        for (ForkJoinTask<SchedulerMLQ> task : tasks)
+        {
+            SchedulerMLQ shard = task.join();
+            results.addAll(shard.getResults());
+            summary.addAll(shard.getSummary());
+        }
+        // The shards are in time order and sorted by label, so this is a merge of sorted
+        // runs, and the stable sort keeps equal labels in completion order as SchedulerMLQ does
+        results.sort(Comparator.comparing(p -> p.label));
+    }
+
+    /**
+     * Finds where the busy periods of a trace begin. The CPU keeps every process for its
+     * burst time, or one tick if it has none, and is never idle while a process waits,
+     * so the work admitted so far ends at {@code max(end, arrival) + burst}; a process that
+     * arrives at or after that instant finds the system empty and starts a new period.
+     *
+     * @param table        The table of processes.
+     * @param arrivalOrder The ids of the table sorted by arrival time.
+     * @return The positions in {@code arrivalOrder} where each busy period begins
+     *         (empty if there are no processes).
+     */
+    static int[] findBusyPeriods(ProcessTable table, int[] arrivalOrder)
+    {
+        int[] starts = new int[16];
+        int count = 0;
+        long end = Long.MIN_VALUE;
+        for (int i = 0; i < arrivalOrder.length; i++)
+        {
+            int id = arrivalOrder[i];
+            long arrival = table.arrivalTime[id];
+            if (arrival >= end)
+            {
+                if (count == starts.length)
+                {
+                    starts = Arrays.copyOf(starts, count * 2);
+                }
+                starts[count++] = i;
+                end = arrival;
+            }
+            end += Math.max(table.burstTime[id], 1);
+        }
+        return Arrays.copyOf(starts, count);
+    }
+
+    /**
+     * Simulates the processes of a range of the arrival order, made of whole busy periods,
+     * on a table of their own.
+     *
+     * @param from The first position in the arrival order.
+     * @param to   The position after the last one.
+     * @return The simulator, after the simulation.
+     */
+    private SchedulerMLQ simulateShard(int from, int to)
+    {
+        ProcessTable shard = new ProcessTable(to - from);
+        int[] order = new int[to - from];
+        for (int i = from; i < to; i++)
+        {
+            int id = arrivalOrder[i];
+            // Added in arrival order, so the ids of the shard are already sorted
+            order[i - from] = shard.add(table.label[id], table.burstTime[id], table.arrivalTime[id],
+                    table.queueId[id], table.priority[id]);
+        }
+        SchedulerMLQ simulator = new SchedulerMLQ(shard, config, order);
+        simulator.setEngine(SchedulerMLQ.Engine.EVENT);
+        simulator.simulate();
+        return simulator;
+    }
+
+    /**
+     * Gets the number of busy periods found by the last simulation.
+     *
+     * @return The number of busy periods.
+     */
+    public int getBusyPeriods()
+    {
+        return busyPeriods;
+    }
+
+    /**
+     * Gets the number of shards (groups of consecutive busy periods) of the last simulation.
+     *
+     * @return The number of shards.
+     */
+    public int getShards()
+    {
+        return shards;
+    }
+
+    /**
+     * Gets the running totals of the metrics of the finished processes.
+     *
+     * @return The metrics summary.
+     */
+    public MetricsSummary getSummary()
+    {
+        return summary;
+    }
+
+    /**
+     * Gets the list of all processes that have completed their execution, sorted by label
+     * as {@link SchedulerMLQ#getResults()}.
+     *
+     * @return A list of {@code Process} objects with all their metrics calculated.
+     */
+    public List<Process> getResults()
+    {
+        return results;
+    }
+}
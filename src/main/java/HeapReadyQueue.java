@@ -0,0 +1,66 @@
+/**
+ * {@link ReadyQueue} backed by an {@link IndexedIntHeap} ordered by
+ * {@link SchedulerMLQ#orderingKey(long)}, with the enqueue sequence as tie-break key.
+ * Works for any priority range at O(log n) per operation.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+public class HeapReadyQueue implements ReadyQueue
+{
+    /** Heap of process ids ordered by priority, then enqueue sequence. */
+    private final IndexedIntHeap heap;
+    /** Sequence number given to the next process added (FIFO tie-break). */
+    private long sequence = 0;
+
+    /**
+     * Creates an empty queue for process ids in the range {@code [0, capacity)}.
+     *
+     * @param capacity The number of distinct process ids.
+     */
+    public HeapReadyQueue(int capacity)
+    {
+        this.heap = new IndexedIntHeap(capacity);
+    }
+
+    @Override
+    public void add(int id, long priority)
+    {
+        heap.add(id, SchedulerMLQ.orderingKey(priority), sequence++);
+    }
+
+    @Override
+    public int peek()
+    {
+        return heap.peek();
+    }
+
+    @Override
+    public int poll()
+    {
+        return heap.poll();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The sequence numbers start again from 0.
+     */
+    @Override
+    public void clear()
+    {
+        heap.clear();
+        sequence = 0;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return heap.isEmpty();
+    }
+
+    @Override
+    public int size()
+    {
+        return heap.size();
+    }
+}
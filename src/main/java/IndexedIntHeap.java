@@ -0,0 +1,302 @@
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of process ids ordered by a {@code long} sort key, with a second
+ * {@code long} key that breaks ties.
+ * It replaces {@code PriorityQueue<Process>} in the ready queues: ids and keys are
+ * stored in primitive arrays, so there is no boxing and no comparator call per compare.
+ * The heap also remembers the position of every id, which allows O(log n)
+ * {@link #changeKey(int, long)} and {@link #remove(int)} by id.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+public class IndexedIntHeap
+{
+    /** Position stored for ids that are not in the heap. */
+    private static final int ABSENT = -1;
+
+    /** Process ids in heap order (the root is at index 0). */
+    private int[] heap;
+    /** Sort key of the id stored at the same heap index. */
+    private long[] keys;
+    /** Tie-break key of the id stored at the same heap index. */
+    private long[] ties;
+    /** Heap index of each id, or {@link #ABSENT}. */
+    private int[] position;
+    /** Number of ids in the heap. */
+    private int size = 0;
+
+    /**
+     * Creates an empty heap for ids in the range {@code [0, capacity)}.
+     * The heap grows if larger ids are added.
+     *
+     * @param capacity The number of distinct ids the heap can hold initially.
+     */
+    public IndexedIntHeap(int capacity)
+    {
+        capacity = Math.max(capacity, 1);
+        this.heap = new int[capacity];
+        this.keys = new long[capacity];
+        this.ties = new long[capacity];
+        this.position = new int[capacity];
+        Arrays.fill(position, ABSENT);
+    }
+
+    /**
+     * Inserts an id with the given sort key (and a tie-break key of 0).
+     *
+     * @param id  The process id (must not be in the heap already).
+     * @param key The sort key; the smallest key is at the top.
+     */
+    public void add(int id, long key)
+    {
+        add(id, key, 0);
+    }
+
+    /**
+     * Inserts an id with the given sort and tie-break keys.
+     *
+     * @param id  The process id (must not be in the heap already).
+     * @param key The sort key; the smallest key is at the top.
+     * @param tie The tie-break key; among equal sort keys the smallest is at the top.
+     */
+    public void add(int id, long key, long tie)
+    {
+        if (id >= position.length)
+        {
+            int old = position.length;
+            position = Arrays.copyOf(position, Math.max(id + 1, old * 2));
+            Arrays.fill(position, old, position.length, ABSENT);
+        }
+        if (size == heap.length)
+        {
+            heap = Arrays.copyOf(heap, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+            ties = Arrays.copyOf(ties, size * 2);
+        }
+        int i = size++;
+        heap[i] = id;
+        keys[i] = key;
+        ties[i] = tie;
+        position[id] = i;
+        siftUp(i);
+    }
+
+    /**
+     * Gets the id with the smallest key without removing it.
+     *
+     * @return The id at the top of the heap, or -1 if the heap is empty.
+     */
+    public int peek()
+    {
+        return size == 0 ? -1 : heap[0];
+    }
+
+    /**
+     * Removes and returns the id with the smallest key.
+     *
+     * @return The id at the top of the heap, or -1 if the heap is empty.
+     */
+    public int poll()
+    {
+        if (size == 0)
+        {
+            return -1;
+        }
+        int id = heap[0];
+        removeAt(0);
+        return id;
+    }
+
+    /**
+     * Removes an id from the heap, wherever it is.
+     *
+     * @param id The process id.
+     * @return true if the id was in the heap, false otherwise.
+     */
+    public boolean remove(int id)
+    {
+        if (id >= position.length)
+        {
+            return false;
+        }
+        int i = position[id];
+        if (i == ABSENT)
+        {
+            return false;
+        }
+        removeAt(i);
+        return true;
+    }
+
+    /**
+     * Changes the sort key of an id already in the heap and restores the heap order.
+     * Works both for decreasing and for increasing the key; the tie-break key is kept.
+     *
+     * @param id  The process id (must be in the heap).
+     * @param key The new sort key.
+     */
+    public void changeKey(int id, long key)
+    {
+        int i = position[id];
+        long old = keys[i];
+        keys[i] = key;
+        if (key < old)
+        {
+            siftUp(i);
+        }
+        else
+        {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Removes every id from the heap, keeping its arrays for reuse.
+     * Costs O(size), not O(capacity).
+     */
+    public void clear()
+    {
+        for (int i = 0; i < size; i++)
+        {
+            position[heap[i]] = ABSENT;
+        }
+        size = 0;
+    }
+
+    /**
+     * Checks if an id is in the heap.
+     *
+     * @param id The process id.
+     * @return true if the id is in the heap, false otherwise.
+     */
+    public boolean contains(int id)
+    {
+        return id < position.length && position[id] != ABSENT;
+    }
+
+    /**
+     * Checks if the heap is empty.
+     *
+     * @return true if there are no ids in the heap, false otherwise.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Gets the number of ids in the heap.
+     *
+     * @return The heap size.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Removes the entry at a heap index, moving the last entry into its place.
+     *
+     * @param i The heap index to remove.
+     */
+    private void removeAt(int i)
+    {
+        position[heap[i]] = ABSENT;
+        int last = --size;
+        if (i == last)
+        {
+            return;
+        }
+        int moved = heap[last];
+        heap[i] = moved;
+        keys[i] = keys[last];
+        ties[i] = ties[last];
+        position[moved] = i;
+        siftDown(i);
+        if (heap[i] == moved)
+        {
+            // It did not go down, so it may have to go up
+            siftUp(i);
+        }
+    }
+
+    /**
+     * Moves the entry at a heap index up until its parent has a smaller key.
+     *
+     * @param i The heap index.
+     */
+    private void siftUp(int i)
+    {
+        int id = heap[i];
+        long key = keys[i];
+        long tie = ties[i];
+        while (i > 0)
+        {
+            int parent = (i - 1) >>> 1;
+            if (!precedes(key, tie, keys[parent], ties[parent]))
+            {
+                break;
+            }
+            heap[i] = heap[parent];
+            keys[i] = keys[parent];
+            ties[i] = ties[parent];
+            position[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = id;
+        keys[i] = key;
+        ties[i] = tie;
+        position[id] = i;
+    }
+
+    /**
+     * Moves the entry at a heap index down until both children have larger keys.
+     *
+     * @param i The heap index.
+     */
+    private void siftDown(int i)
+    {
+        int id = heap[i];
+        long key = keys[i];
+        long tie = ties[i];
+        int half = size >>> 1;
+        while (i < half)
+        {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && precedes(keys[right], ties[right], keys[child], ties[child]))
+            {
+                child = right;
+            }
+            if (!precedes(keys[child], ties[child], key, tie))
+            {
+                break;
+            }
+            heap[i] = heap[child];
+            keys[i] = keys[child];
+            ties[i] = ties[child];
+            position[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = id;
+        keys[i] = key;
+        ties[i] = tie;
+        position[id] = i;
+    }
+
+    /**
+     * Compares two entries by sort key, then by tie-break key.
+     *
+     * @param key      The sort key of the first entry.
+     * @param tie      The tie-break key of the first entry.
+     * @param otherKey The sort key of the second entry.
+     * @param otherTie The tie-break key of the second entry.
+     * @return true if the first entry must be nearer the top than the second.
+     */
+    private static boolean precedes(long key, long tie, long otherKey, long otherTie)
+    {
+        return key < otherKey || (key == otherKey && tie < otherTie);
+    }
+}
@@ -1,16 +1,18 @@
-import java.io.File;
-import java.io.FileReader;
-import java.io.BufferedReader;
-import java.io.PrintWriter;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Main (Driver) class for the MLQ simulator.
  * It is responsible for:
- * 1. Reading input files ({@link #readFile(String)}).
+ * 1. Reading input files ({@link #readFile(String)}, {@link #readTable(String)}).
  * 2. Instantiating and running the simulator ({@link SchedulerMLQ}).
  * 3. Writing the output files with the results ({@link #writeFile(String, List)}).
+ * It can also run a whole file in streaming mode ({@link #streamFile(String)}),
+ * or many files at once ({@link BatchRunner}).
  *
  * @author Santiago Duque
  * @version 1.0
@@ -20,21 +22,269 @@ public class Main
 
     /**
      * Main entry point for the application.
+     * Without a file every mode reads "mlq001.txt". Usage:
+     * <ul>
+     * <li>{@code Main [file]}: simulates the file.</li>
+     * <li>{@code Main --stream [file]}: simulates it in streaming mode.</li>
+     * <li>{@code Main --parallel [file]}: simulates its busy periods in parallel
+     * ({@link BusyPeriodSimulator}).</li>
+     * <li>{@code Main --verify [file]}: checks the closed-form schedule against the full
+     * simulation ({@link SchedulerMLQ#setShadowVerification(boolean)}).</li>
+     * <li>{@code Main --mlfq <boost> ...}: turns the levels into a multilevel feedback
+     * queue boosted every {@code boost} time units.</li>
+     * <li>{@code Main --overhead <switch> <preemption> ...}: charges every context switch
+     * and preemption, and reports the switches per level
+     * ({@link SchedulerConfig#withOverhead(int, int)}).</li>
+     * <li>{@code Main --cpus <K> [--per-core] [file]}: simulates it on K CPUs sharing one set
+     * of queues, or with one set per CPU ({@link MultiCoreSchedulerMLQ}).</li>
+     * <li>{@code Main --sweep <grid> [file]}: simulates it under every configuration of a
+     * grid ({@link SweepRunner}).</li>
+     * <li>{@code Main --generate <count> <seed> [file]}: writes a synthetic workload to the
+     * file, or simulates it directly without one ({@link #generate(String, String, String)}).</li>
+     * <li>{@code Main --batch <directory|glob>}: simulates every matching file
+     * ({@link BatchRunner}).</li>
+     * </ul>
+     * {@code --mlfq} may be followed by {@code --overhead}, and either of them by
+     * {@code --stream}, {@code --parallel}, {@code --verify} or the file.
      *
-     * @param args Command-line arguments (not used).
+     * @param args Command-line arguments.
      */
     public static void main(String[] args)
     {
-        String inputFile = "mlq001.txt";
-        List<Process> Process = readFile(inputFile);
+        if (args.length > 1 && args[0].equals("--batch"))
+        {
+            BatchRunner.run(args[1]);
+            return;
+        }
+
+        if (args.length > 2 && args[0].equals("--generate"))
+        {
+            generate(args[1], args[2], args.length > 3 ? args[3] : null);
+            return;
+        }
+
+        if (args.length > 1 && args[0].equals("--sweep"))
+        {
+            SweepRunner.run(args.length > 2 ? args[2] : "mlq001.txt", args[1]);
+            return;
+        }
+
+        if (args.length > 1 && args[0].equals("--cpus"))
+        {
+            boolean perCore = args.length > 2 && args[2].equals("--per-core");
+            int fileArg = perCore ? 3 : 2;
+            String inputFile = args.length > fileArg ? args[fileArg] : "mlq001.txt";
+            simulateMultiCore(inputFile, args[1], perCore
+                    ? MultiCoreSchedulerMLQ.Placement.PER_CORE : MultiCoreSchedulerMLQ.Placement.GLOBAL);
+            return;
+        }
+
+        SchedulerConfig config = SchedulerConfig.defaults();
+        if (args.length > 1 && args[0].equals("--mlfq"))
+        {
+            try
+            {
+                config = config.withFeedback(Integer.parseInt(args[1]));
+            }
+            catch (IllegalArgumentException e)
+            {
+                System.err.println("Intervalo de boost invalido: " + args[1]);
+                return;
+            }
+            args = Arrays.copyOfRange(args, 2, args.length);
+        }
+        if (args.length > 2 && args[0].equals("--overhead"))
+        {
+            try
+            {
+                config = config.withOverhead(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+            }
+            catch (IllegalArgumentException e)
+            {
+                System.err.println("Coste de cambio de contexto invalido: " + args[1] + " " + args[2]);
+                return;
+            }
+            args = Arrays.copyOfRange(args, 3, args.length);
+        }
+
+        boolean streaming = args.length > 0 && args[0].equals("--stream");
+        boolean parallel = args.length > 0 && args[0].equals("--parallel");
+        boolean verify = args.length > 0 && args[0].equals("--verify");
+        int fileArg = streaming || parallel || verify ? 1 : 0;
+        String inputFile = args.length > fileArg ? args[fileArg] : "mlq001.txt";
+
+        if (streaming)
+        {
+            streamFile(inputFile, config);
+            return;
+        }
+
+        if (parallel)
+        {
+            simulateBusyPeriods(inputFile, config);
+            return;
+        }
+
+        ProcessTable Process = readTable(inputFile);
 
         if (Process != null)
         {
-            SchedulerMLQ simulator = new SchedulerMLQ(Process);
-            simulator.simulate();
+            SchedulerMLQ simulator = new SchedulerMLQ(Process, config);
+            simulator.setEngine(SchedulerMLQ.Engine.EVENT);
+            simulator.setShadowVerification(verify);
+            try
+            {
+                simulator.simulate();
+            }
+            catch (IllegalArgumentException | IllegalStateException e)
+            {
+                System.err.println("Error en la simulacion: " + e.getMessage());
+                return;
+            }
 
             List<Process> results = simulator.getResults();
-            writeFile(inputFile, results);
+            writeFile(inputFile, results, simulator.getSummary());
+            if (config.hasOverhead())
+            {
+                printOverhead(simulator, config);
+            }
+        }
+    }
+
+    /**
+     * Prints the scheduling counters of a simulation with overhead: the context switches,
+     * preemptions and quantum expiries of every level, and the share of the elapsed time
+     * the CPU spent switching instead of running processes.
+     *
+     * @param simulator The simulator, after the simulation.
+     * @param config    Its configuration (with overhead).
+     */
+    static void printOverhead(SchedulerMLQ simulator, SchedulerConfig config)
+    {
+        for (int level = 1; level <= config.getLevels(); level++)
+        {
+            System.out.printf("Cola %d: cambios de contexto=%d; expropiaciones=%d; quantums agotados=%d;\n",
+                    level, simulator.getContextSwitches(level), simulator.getPreemptions(level),
+                    simulator.getQuantumExpiries(level));
+        }
+        // The clock starts at 0, so the last completion is the elapsed time
+        MetricsSummary summary = simulator.getSummary();
+        long elapsed = summary.getCount() == 0 ? 0 : summary.getMaxCompletionTime();
+        long overhead = simulator.getOverheadTime();
+        System.out.printf("Tiempo en cambios de contexto: %d de %d (%.1f%%)\n",
+                overhead, elapsed, elapsed == 0 ? 0.0 : 100.0 * overhead / elapsed);
+    }
+
+    /**
+     * Generates a synthetic workload with the default settings of {@link WorkloadGenerator}.
+     * With a file name the processes are written to that file; without one they are
+     * simulated in streaming mode as they are generated, and only the averages are printed,
+     * so no file and no list of processes is needed.
+     *
+     * @param count    The number of processes, as given in the command line.
+     * @param seed     The seed, as given in the command line.
+     * @param fileName The file to write, or null to simulate directly.
+     */
+    private static void generate(String count, String seed, String fileName)
+    {
+        WorkloadGenerator generator;
+        try
+        {
+            generator = new WorkloadGenerator(Long.parseLong(seed), Long.parseLong(count));
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println("Parametros de generacion invalidos: " + count + " " + seed);
+            return;
+        }
+
+        try
+        {
+            if (fileName != null)
+            {
+                generator.write(fileName);
+                System.out.println("Carga generada: " + count + " procesos en " + fileName);
+                return;
+            }
+            SchedulerMLQ simulator = new SchedulerMLQ(generator, (table, id) -> { });
+            simulator.setEngine(SchedulerMLQ.Engine.EVENT);
+            simulator.simulate();
+
+            MetricsSummary summary = simulator.getSummary();
+            System.out.printf("WT=%.1f; CT=%.1f; RT=%.1f; TAT=%.1f;\n",
+                    summary.getAverageWaitingTime(), summary.getAverageCompletionTime(),
+                    summary.getAverageResponseTime(), summary.getAverageTurnAroundTime());
+        }
+        catch (Exception e)
+        {
+            System.err.println("Error en la simulacion: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Simulates a file with its busy periods in parallel ({@link BusyPeriodSimulator})
+     * and writes the results, which are the same as those of a single simulation.
+     *
+     * @param inputFile The name of the input file.
+     * @param config    The levels with their policies and quanta.
+     */
+    private static void simulateBusyPeriods(String inputFile, SchedulerConfig config)
+    {
+        ProcessTable table = readTable(inputFile);
+        if (table != null)
+        {
+            try
+            {
+                BusyPeriodSimulator simulator = new BusyPeriodSimulator(table, config);
+                simulator.simulate();
+                writeFile(inputFile, simulator.getResults(), simulator.getSummary());
+            }
+            catch (IllegalArgumentException e)
+            {
+                System.err.println("Error en la simulacion: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Simulates a file on several CPUs and writes the results, followed by the
+     * utilization of every CPU.
+     *
+     * @param inputFile The name of the input file.
+     * @param cpus      The number of CPUs, as given in the command line.
+     * @param placement Where the ready processes wait.
+     */
+    private static void simulateMultiCore(String inputFile, String cpus,
+                                          MultiCoreSchedulerMLQ.Placement placement)
+    {
+        int cores;
+        try
+        {
+            cores = Integer.parseInt(cpus);
+        }
+        catch (NumberFormatException e)
+        {
+            System.err.println("Numero de CPUs invalido: " + cpus);
+            return;
+        }
+
+        ProcessTable table = readTable(inputFile);
+        if (table != null)
+        {
+            try
+            {
+                MultiCoreSchedulerMLQ simulator = new MultiCoreSchedulerMLQ(table,
+                        SchedulerConfig.defaults(), cores, placement);
+                simulator.simulate();
+
+                String outputFile = writeResults(inputFile, simulator.getResults(),
+                        simulator.getSummary(), simulator.getUtilization());
+                System.out.println("Simulacion completada. Resultados en: " + outputFile);
+            }
+            catch (Exception e)
+            {
+                System.err.println("Error en la simulacion: " + e.getMessage());
+            }
         }
     }
 
@@ -48,37 +298,91 @@ public class Main
      */
     public static List<Process> readFile(String fileName)
     {
-        List<Process> process = new ArrayList<>();
+        ProcessTable table = readTable(fileName);
+        return table == null ? null : table.toList();
+    }
+
+    /**
+     * Reads a text file with process definitions straight into column storage,
+     * without building a {@code Process} object per line.
+     * Follows the same rules as {@link #readFile(String)}; the file is memory-mapped
+     * and parsed in place by {@link MappedTraceReader}.
+     *
+     * @param fileName The name (or path) of the input file.
+     * @return A {@code ProcessTable} with one row per process read from the file,
+     * or null if an error occurs.
+     */
+    public static ProcessTable readTable(String fileName)
+    {
+        try
+        {
+            return MappedTraceReader.read(fileName);
+        }
+        catch (Exception e)
+        {
+            System.err.println("Error leyendo el archivo: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Simulates an arrival-sorted file in streaming mode and writes the results as they come.
+     * Processes are read only when the clock reaches their arrival time and each result line
+     * is written as soon as the process finishes, so memory is bounded by the number of live
+     * processes, not by the length of the trace. The output file has the same format as
+     * {@link #writeFile(String, List)}, but the lines are in completion order.
+     *
+     * @param originalFile The name of the input file, used to name the output file.
+     */
+    public static void streamFile(String originalFile)
+    {
+        streamFile(originalFile, SchedulerConfig.defaults());
+    }
+
+    /**
+     * Simulates an arrival-sorted file in streaming mode with a custom queue topology,
+     * as {@link #streamFile(String)}.
+     *
+     * @param originalFile The name of the input file, used to name the output file.
+     * @param config       The levels with their policies and quanta.
+     */
+    public static void streamFile(String originalFile, SchedulerConfig config)
+    {
+        String outputFile = outputFileName(originalFile);
 
-        try (BufferedReader br = new BufferedReader(new FileReader(fileName)))
+        try (MappedTraceSource source = new MappedTraceSource(originalFile);
+             ResultWriter writer = new ResultWriter(outputFile))
         {
-            String line;
-            while ((line = br.readLine()) != null)
+            writer.writeHeader(originalFile);
+
+            SchedulerMLQ simulator = new SchedulerMLQ(source, (table, id) ->
             {
-                // This condition is used to ignore comments.
-                if (line.startsWith("#") || line.trim().isEmpty())
+                try
                 {
-                    continue;
+                    writer.writeRow(table, id);
                 }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            }, config);
+            simulator.setEngine(SchedulerMLQ.Engine.EVENT);
+            simulator.simulate();
 
-                // Split by ; and trim whitespace
-                String[] partes = line.split(";");
-                String label = partes[0].trim();
-
-                int bt = Integer.parseInt(partes[1].trim());
-                int at = Integer.parseInt(partes[2].trim());
-                int q = Integer.parseInt(partes[3].trim());
-                int pr = Integer.parseInt(partes[4].trim());
+            MetricsSummary summary = simulator.getSummary();
+            writer.writeAverages(summary.getAverageWaitingTime(), summary.getAverageCompletionTime(),
+                    summary.getAverageResponseTime(), summary.getAverageTurnAroundTime());
 
-                process.add(new Process(label, bt, at, q, pr));
+            System.out.println("Simulacion completada. Resultados en: " + outputFile);
+            if (config.hasOverhead())
+            {
+                printOverhead(simulator, config);
             }
         }
         catch (Exception e)
         {
-            System.err.println("Error leyendo el archivo: " + e.getMessage());
-            return null;
+            System.err.println("Error en la simulacion: " + e.getMessage());
         }
-        return process;
     }
 
     /**
@@ -91,37 +395,118 @@ public class Main
      */
     public static void writeFile(String originalFile, List<Process> results)
     {
-        String outputFile = "salida_" + originalFile;
-        double totalWT = 0, totalCT = 0, totalRT = 0, totalTAT = 0;
+        writeFile(originalFile, results, null);
+    }
+
+    /**
+     * Writes the simulation results to a text file, as {@link #writeFile(String, List)},
+     * taking the averages from the totals the simulator kept.
+     *
+     * @param originalFile The name of the input file, used to name the output file.
+     * @param results      The list of finished processes with their calculated metrics.
+     * @param summary      The totals of the simulation, or null to add them up while writing.
+     */
+    public static void writeFile(String originalFile, List<Process> results, MetricsSummary summary)
+    {
+        try
+        {
+            String outputFile = writeResults(originalFile, results, summary, null);
+            System.out.println("Simulacion completada. Resultados en: " + outputFile);
+        }
+        catch (Exception e)
+        {
+            System.err.println("Error escribiendo el archivo: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the name of the output file for an input file: "salida_" followed by the
+     * file name, in the same directory as the input.
+     *
+     * @param originalFile The name (or path) of the input file.
+     * @return The name (or path) of the output file.
+     */
+    public static String outputFileName(String originalFile)
+    {
+        Path input = Paths.get(originalFile);
+        return input.resolveSibling("salida_" + input.getFileName()).toString();
+    }
+
+    /**
+     * Writes the simulation results to a text file, as {@link #writeFile(String, List)},
+     * but reports errors to the caller and prints nothing.
+     *
+     * @param originalFile The name of the input file, used to name the output file.
+     * @param results      The list of finished processes with their calculated metrics.
+     * @return The name of the output file.
+     * @throws IOException If the file cannot be written.
+     */
+    public static String writeResults(String originalFile, List<Process> results) throws IOException
+    {
+        return writeResults(originalFile, results, null, null);
+    }
+
+    /**
+     * Writes the simulation results to a text file, as {@link #writeResults(String, List)},
+     * adding a last line with the utilization of every CPU ("CPU1=75.0%; CPU2=62.5%;").
+     *
+     * @param originalFile The name of the input file, used to name the output file.
+     * @param results      The list of finished processes with their calculated metrics.
+     * @param utilization  The utilization of each CPU between 0 and 1, or null to omit the line.
+     * @return The name of the output file.
+     * @throws IOException If the file cannot be written.
+     */
+    public static String writeResults(String originalFile, List<Process> results, double[] utilization)
+            throws IOException
+    {
+        return writeResults(originalFile, results, null, utilization);
+    }
+
+    /**
+     * Writes the simulation results to a text file, as {@link #writeResults(String, List, double[])}.
+     * The averages come from the exact totals the simulator kept as each process finished,
+     * so the results are not added up again; without them, they are added up while the
+     * lines are written.
+     *
+     * @param originalFile The name of the input file, used to name the output file.
+     * @param results      The list of finished processes with their calculated metrics.
+     * @param summary      The totals of the simulation, or null to add them up while writing.
+     * @param utilization  The utilization of each CPU between 0 and 1, or null to omit the line.
+     * @return The name of the output file.
+     * @throws IOException If the file cannot be written.
+     */
+    public static String writeResults(String originalFile, List<Process> results, MetricsSummary summary,
+                                      double[] utilization) throws IOException
+    {
+        String outputFile = outputFileName(originalFile);
+        MetricsSummary totals = summary;
+        if (totals == null)
+        {
+            totals = new MetricsSummary();
+        }
 
-        try (PrintWriter pw = new PrintWriter(new File(outputFile)))
+        try (ResultWriter writer = new ResultWriter(outputFile))
         {
-            pw.println("# archivo: " + originalFile);
-            pw.println("# label; BT; AT; Q; Pr; WT; CT; RT; TAT");
+            writer.writeHeader(originalFile);
 
             for (int i = 0; i < results.size(); i++)
             {
                 Process p = results.get(i);
-                pw.printf("%s;%d;%d;%d;%d;%d;%d;%d;%d\n",
-                        p.label, p.burstTime, p.arrivalTime, p.queueId, p.priority,
-                        p.waitingTime, p.completionTime, p.responseTime, p.turnAroundTime);
-
-                totalWT += p.waitingTime;
-                totalCT += p.completionTime;
-                totalRT += p.responseTime;
-                totalTAT += p.turnAroundTime;
+                writer.writeRow(p);
+                if (summary == null)
+                {
+                    totals.add(p);
+                }
             }
 
-            int n = results.size();
-            pw.printf("WT=%.1f; CT=%.1f; RT=%.1f; TAT=%.1f;\n",
-                    totalWT / n, totalCT / n, totalRT / n, totalTAT / n);
-
-            System.out.println("Simulacion completada. Resultados en: " + outputFile);
+            writer.writeAverages(totals.getAverageWaitingTime(), totals.getAverageCompletionTime(),
+                    totals.getAverageResponseTime(), totals.getAverageTurnAroundTime());
 
+            if (utilization != null)
+            {
+                writer.writeUtilization(utilization);
+            }
         }
-        catch (Exception e)
-        {
-            System.err.println("Error escribiendo el archivo: " + e.getMessage());
-        }
+        return outputFile;
     }
 }
\ No newline at end of file
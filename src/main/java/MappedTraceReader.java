@@ -0,0 +1,509 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Reads process definition files by memory-mapping them and scanning the bytes in place.
+ * Follows the same rules as {@link Main#readFile(String)}: lines starting with '#' and
+ * blank lines are ignored, and every other line has the five fields
+ * {@code label; BT; AT; Q; Pr} separated by ';'. Integers are decoded straight from the
+ * bytes and written into a {@link ProcessTable}; the only object built per line is the label.
+ * Large files are split into line-aligned chunks that are parsed in parallel.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+public class MappedTraceReader
+{
+    /** Largest region mapped at once (a mapping cannot exceed 2 GB). */
+    static final int WINDOW_SIZE = 1 << 30;
+
+    /** Number of fields of every process line. */
+    static final int FIELDS = 5;
+
+    /** Files at least this big (in bytes) are parsed in parallel. */
+    private static final long PARALLEL_THRESHOLD = 16L << 20;
+
+    /** Smallest chunk (in bytes) handed to a parallel task. */
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+
+    /**
+     * Result of parsing one chunk of the file on its own.
+     */
+    private static class Chunk
+    {
+        /** Processes of the chunk, in file order. */
+        final ProcessTable table = new ProcessTable();
+        /** Number of lines in the chunk. */
+        long lines;
+        /** Error found in the chunk (with the line relative to the chunk), or null. */
+        FormatException error;
+    }
+
+    /**
+     * Error in the content of the input file, tied to the line where it was found.
+     */
+    static class FormatException extends IOException
+    {
+        private static final long serialVersionUID = 1L;
+
+        /** Line number (starting at 1) where the error was found. */
+        final long line;
+        /** Description of the error, without the line number. */
+        final String detail;
+
+        /**
+         * Creates a new format error.
+         *
+         * @param line   The line number (starting at 1).
+         * @param detail The description of the error.
+         */
+        FormatException(long line, String detail)
+        {
+            super("linea " + line + ": " + detail);
+            this.line = line;
+            this.detail = detail;
+        }
+    }
+
+    /**
+     * Utility class, not instantiable.
+     */
+    private MappedTraceReader()
+    {
+    }
+
+    /**
+     * Reads a process definition file into a new table.
+     *
+     * @param fileName The name (or path) of the input file.
+     * @return A table with one row per process line, in file order.
+     * @throws IOException If the file cannot be read or a line is malformed
+     *                     (the message includes the line number).
+     */
+    public static ProcessTable read(String fileName) throws IOException
+    {
+        Path path = Paths.get(fileName);
+        ProcessTable table = new ProcessTable();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        if (pool.getParallelism() > 1 && Files.size(path) >= PARALLEL_THRESHOLD)
+        {
+            readParallel(path, table, pool, MIN_CHUNK_SIZE);
+        }
+        else
+        {
+            read(path, table);
+        }
+        return table;
+    }
+
+    /**
+     * Reads a process definition file, appending its processes to an existing table.
+     * Files larger than the mapping limit are mapped in consecutive windows that end
+     * on a line break.
+     *
+     * @param path  The input file.
+     * @param table The table where the processes are added.
+     * @throws IOException If the file cannot be read or a line is malformed.
+     */
+    public static void read(Path path, ProcessTable table) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            long fileSize = channel.size();
+            long position = 0;
+            long line = 1;
+            while (position < fileSize)
+            {
+                int length = (int) Math.min(WINDOW_SIZE, fileSize - position);
+                MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int end = length;
+                if (position + length < fileSize)
+                {
+                    // Only parse up to the last complete line; the rest goes in the next window
+                    end = lastLineEnd(buf, length);
+                    if (end == 0)
+                    {
+                        throw new FormatException(line, "linea demasiado larga");
+                    }
+                }
+                line += parse(buf, 0, end, table, line);
+                position += end;
+            }
+        }
+    }
+
+    /**
+     * Reads a process definition file in parallel, appending its processes to an existing table.
+     * Every mapped window is split into chunks that end on a '\n'; each chunk is parsed
+     * into its own table on the pool, and the chunk tables are then appended in file order,
+     * so the result is the same as {@link #read(Path, ProcessTable)}. If several lines are
+     * malformed, the first one in the file is reported.
+     *
+     * @param path      The input file.
+     * @param table     The table where the processes are added.
+     * @param pool      The pool that parses the chunks.
+     * @param chunkSize The minimum size of a chunk, in bytes.
+     * @throws IOException If the file cannot be read or a line is malformed.
+     */
+    static void readParallel(Path path, ProcessTable table, ForkJoinPool pool, int chunkSize)
+            throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            long fileSize = channel.size();
+            long position = 0;
+            long line = 1;
+            while (position < fileSize)
+            {
+                int length = (int) Math.min(WINDOW_SIZE, fileSize - position);
+                MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int end = length;
+                if (position + length < fileSize)
+                {
+                    end = lastLineEnd(buf, length);
+                    if (end == 0)
+                    {
+                        throw new FormatException(line, "linea demasiado larga");
+                    }
+                }
+
+                // Several chunks per worker so an uneven chunk does not leave cores idle
+                int size = Math.max(chunkSize, end / (pool.getParallelism() * 4));
+                List<ForkJoinTask<Chunk>> tasks = new ArrayList<>();
+                int from = 0;
+                while (from < end)
+                {
+                    int to = nextLineEnd(buf, Math.min(from + size, end) - 1, end);
+                    int chunkFrom = from;
+                    tasks.add(pool.submit(() -> parseChunk(buf, chunkFrom, to)));
+                    from = to;
+                }
+
+                for (ForkJoinTask<Chunk> task : tasks)
+                {
+                    Chunk chunk = task.join();
+                    if (chunk.error != null)
+                    {
+                        throw new FormatException(line + chunk.error.line - 1, chunk.error.detail);
+                    }
+                    table.addAll(chunk.table);
+                    line += chunk.lines;
+                }
+                position += end;
+            }
+        }
+    }
+
+    /**
+     * Parses one chunk into its own table, numbering its lines from 1.
+     *
+     * @param buf  The buffer with the file bytes.
+     * @param from The first byte of the chunk (the start of a line).
+     * @param to   The end of the chunk, exclusive (the end of a line or of the file).
+     * @return The parsed chunk, or the chunk with its error.
+     */
+    private static Chunk parseChunk(ByteBuffer buf, int from, int to)
+    {
+        Chunk chunk = new Chunk();
+        try
+        {
+            chunk.lines = parse(buf, from, to, chunk.table, 1);
+        }
+        catch (FormatException e)
+        {
+            chunk.error = e;
+        }
+        return chunk;
+    }
+
+    /**
+     * Parses every line in a byte range and appends the processes to a table.
+     *
+     * @param buf       The buffer with the file bytes.
+     * @param from      The first byte of the range (the start of a line).
+     * @param to        The end of the range, exclusive (the end of a line or of the file).
+     * @param table     The table where the processes are added.
+     * @param firstLine The line number of the first line of the range.
+     * @return The number of lines in the range.
+     * @throws FormatException If a line is malformed.
+     */
+    static long parse(ByteBuffer buf, int from, int to, ProcessTable table, long firstLine)
+            throws FormatException
+    {
+        int[] bounds = new int[FIELDS * 2];
+        long line = firstLine;
+        int pos = from;
+        while (pos < to)
+        {
+            int lineEnd = contentEnd(buf, pos, to);
+            if (isProcessLine(buf, pos, lineEnd))
+            {
+                parseLine(buf, pos, lineEnd, bounds, table, line);
+            }
+            line++;
+            pos = skipLineBreak(buf, lineEnd, to);
+        }
+        return line - firstLine;
+    }
+
+    /**
+     * Finds where the content of a line ends (\n, \r or \r\n end a line, as in
+     * {@code BufferedReader.readLine()}).
+     *
+     * @param buf  The buffer with the file bytes.
+     * @param from The first byte of the line.
+     * @param to   The end of the searchable bytes, exclusive.
+     * @return The index of the line break, or {@code to} if there is none.
+     */
+    static int contentEnd(ByteBuffer buf, int from, int to)
+    {
+        int i = from;
+        while (i < to && buf.get(i) != '\n' && buf.get(i) != '\r')
+        {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Skips the line break found by {@link #contentEnd(ByteBuffer, int, int)}.
+     *
+     * @param buf     The buffer with the file bytes.
+     * @param lineEnd The index of the line break.
+     * @param to      The end of the searchable bytes, exclusive.
+     * @return The index of the first byte of the next line.
+     */
+    static int skipLineBreak(ByteBuffer buf, int lineEnd, int to)
+    {
+        int next = lineEnd + 1;
+        if (lineEnd < to && buf.get(lineEnd) == '\r' && next < to && buf.get(next) == '\n')
+        {
+            next++;
+        }
+        return next;
+    }
+
+    /**
+     * Checks if a line defines a process, that is, if it is neither a comment nor blank.
+     *
+     * @param buf  The buffer with the file bytes.
+     * @param from The first byte of the line.
+     * @param to   The end of the line, exclusive (without the line break).
+     * @return true if the line must be parsed, false if it is ignored.
+     */
+    static boolean isProcessLine(ByteBuffer buf, int from, int to)
+    {
+        return from < to && buf.get(from) != '#' && !isBlank(buf, from, to);
+    }
+
+    /**
+     * Parses a single process line and appends it to a table.
+     *
+     * @param buf    The buffer with the file bytes.
+     * @param from   The first byte of the line.
+     * @param to     The end of the line, exclusive (without the line break).
+     * @param bounds Scratch array that receives the start and end of each field.
+     * @param table  The table where the process is added.
+     * @param line   The line number, for error messages.
+     * @return The id of the new row.
+     * @throws FormatException If the line is malformed.
+     */
+    static int parseLine(ByteBuffer buf, int from, int to, int[] bounds,
+                         ProcessTable table, long line) throws FormatException
+    {
+        int field = 0;
+        int start = from;
+        for (int i = from; i <= to && field < FIELDS; i++)
+        {
+            if (i == to || buf.get(i) == ';')
+            {
+                bounds[2 * field] = start;
+                bounds[2 * field + 1] = i;
+                field++;
+                start = i + 1;
+            }
+        }
+        if (field < FIELDS)
+        {
+            throw new FormatException(line, "se esperaban " + FIELDS + " campos separados por ';'");
+        }
+
+        int labelFrom = trimStart(buf, bounds[0], bounds[1]);
+        int labelTo = trimEnd(buf, labelFrom, bounds[1]);
+        byte[] labelBytes = new byte[labelTo - labelFrom];
+        buf.get(labelFrom, labelBytes);
+        String label = new String(labelBytes, StandardCharsets.UTF_8);
+
+        long bt = parseLong(buf, bounds[2], bounds[3], line, Long.MIN_VALUE, Long.MAX_VALUE);
+        long at = parseLong(buf, bounds[4], bounds[5], line, Long.MIN_VALUE, Long.MAX_VALUE);
+        int q = (int) parseLong(buf, bounds[6], bounds[7], line, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        int pr = (int) parseLong(buf, bounds[8], bounds[9], line, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+        return table.add(label, bt, at, q, pr);
+    }
+
+    /**
+     * Decodes a decimal integer (with optional sign and surrounding spaces) from the bytes of a field.
+     * Times are {@code long}; the queue and the priority are limited to the {@code int} range.
+     *
+     * @param buf  The buffer with the file bytes.
+     * @param from The first byte of the field.
+     * @param to   The end of the field, exclusive.
+     * @param line The line number, for error messages.
+     * @param min  The smallest valid value.
+     * @param max  The largest valid value.
+     * @return The decoded value.
+     * @throws FormatException If the field is not a valid number in {@code [min, max]}.
+     */
+    private static long parseLong(ByteBuffer buf, int from, int to, long line, long min, long max)
+            throws FormatException
+    {
+        from = trimStart(buf, from, to);
+        to = trimEnd(buf, from, to);
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buf.get(i) == '-' || buf.get(i) == '+'))
+        {
+            negative = buf.get(i) == '-';
+            i++;
+        }
+        if (i == to)
+        {
+            throw new FormatException(line, "numero invalido: \"" + text(buf, from, to) + "\"");
+        }
+        // Accumulate as a negative number so Long.MIN_VALUE fits
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long value = 0;
+        for (; i < to; i++)
+        {
+            int digit = buf.get(i) - '0';
+            if (digit < 0 || digit > 9)
+            {
+                throw new FormatException(line, "numero invalido: \"" + text(buf, from, to) + "\"");
+            }
+            if (value < limit / 10 || value * 10 < limit + digit)
+            {
+                throw new FormatException(line, "numero fuera de rango: \"" + text(buf, from, to) + "\"");
+            }
+            value = value * 10 - digit;
+        }
+        value = negative ? value : -value;
+        if (value < min || value > max)
+        {
+            throw new FormatException(line, "numero fuera de rango: \"" + text(buf, from, to) + "\"");
+        }
+        return value;
+    }
+
+    /**
+     * Checks if a line only has whitespace (as {@code line.trim().isEmpty()}).
+     *
+     * @param buf  The buffer with the file bytes.
+     * @param from The first byte of the line.
+     * @param to   The end of the line, exclusive.
+     * @return true if every byte is a space or control character, false otherwise.
+     */
+    private static boolean isBlank(ByteBuffer buf, int from, int to)
+    {
+        return trimStart(buf, from, to) == to;
+    }
+
+    /**
+     * Skips leading whitespace (any byte up to ' ', as {@code String.trim()}).
+     *
+     * @param buf  The buffer with the file bytes.
+     * @param from The first byte of the range.
+     * @param to   The end of the range, exclusive.
+     * @return The index of the first non-whitespace byte, or {@code to}.
+     */
+    private static int trimStart(ByteBuffer buf, int from, int to)
+    {
+        while (from < to && (buf.get(from) & 0xFF) <= ' ')
+        {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * Skips trailing whitespace (any byte up to ' ', as {@code String.trim()}).
+     *
+     * @param buf  The buffer with the file bytes.
+     * @param from The first byte of the range.
+     * @param to   The end of the range, exclusive.
+     * @return The end, exclusive, of the range without trailing whitespace.
+     */
+    private static int trimEnd(ByteBuffer buf, int from, int to)
+    {
+        while (to > from && (buf.get(to - 1) & 0xFF) <= ' ')
+        {
+            to--;
+        }
+        return to;
+    }
+
+    /**
+     * Finds the end of the last complete line in the first bytes of a buffer.
+     *
+     * @param buf    The buffer with the file bytes.
+     * @param length The number of bytes to consider.
+     * @return The index just after the last '\n', or 0 if there is none.
+     */
+    static int lastLineEnd(ByteBuffer buf, int length)
+    {
+        for (int i = length - 1; i >= 0; i--)
+        {
+            if (buf.get(i) == '\n')
+            {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Finds the end of the line that contains a given byte.
+     *
+     * @param buf   The buffer with the file bytes.
+     * @param index The byte whose line is wanted.
+     * @param limit The end of the searchable bytes, exclusive.
+     * @return The index just after the next '\n' at or after {@code index}, or {@code limit}.
+     */
+    private static int nextLineEnd(ByteBuffer buf, int index, int limit)
+    {
+        for (int i = index; i < limit; i++)
+        {
+            if (buf.get(i) == '\n')
+            {
+                return i + 1;
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * Decodes a byte range as text. Only used to build error messages.
+     *
+     * @param buf  The buffer with the file bytes.
+     * @param from The first byte of the range.
+     * @param to   The end of the range, exclusive.
+     * @return The range as a {@code String}.
+     */
+    private static String text(ByteBuffer buf, int from, int to)
+    {
+        byte[] bytes = new byte[to - from];
+        buf.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
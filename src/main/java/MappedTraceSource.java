@@ -0,0 +1,113 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@link ProcessSource} that reads a process definition file lazily, one line at a time.
+ * The file is memory-mapped window by window and parsed in place with the same rules as
+ * {@link MappedTraceReader}, so only the processes that have been pulled take heap space.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+public class MappedTraceSource implements ProcessSource, Closeable
+{
+    /** Channel of the input file. */
+    private final FileChannel channel;
+    /** Size of the input file in bytes. */
+    private final long fileSize;
+
+    /** Currently mapped window (null before the first one). */
+    private MappedByteBuffer buf;
+    /** File position of the first byte of the window. */
+    private long windowStart = 0;
+    /** Position in the window of the next line to read. */
+    private int pos = 0;
+    /** End of the complete lines in the window, exclusive. */
+    private int end = 0;
+    /** Line number of the next line to read. */
+    private long line = 1;
+    /** Scratch array for the field bounds of a line. */
+    private final int[] bounds = new int[MappedTraceReader.FIELDS * 2];
+
+    /**
+     * Opens a process definition file for lazy reading.
+     *
+     * @param fileName The name (or path) of the input file.
+     * @throws IOException If the file cannot be opened.
+     */
+    public MappedTraceSource(String fileName) throws IOException
+    {
+        this.channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+        this.fileSize = channel.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Comment and blank lines are skipped.
+     *
+     * @throws IOException If the file cannot be read or the line is malformed
+     *                     (the message includes the line number).
+     */
+    @Override
+    public int next(ProcessTable table) throws IOException
+    {
+        while (true)
+        {
+            if (pos >= end && !mapNextWindow())
+            {
+                return -1;
+            }
+            int from = pos;
+            int lineEnd = MappedTraceReader.contentEnd(buf, from, end);
+            pos = MappedTraceReader.skipLineBreak(buf, lineEnd, end);
+            long number = line++;
+            if (MappedTraceReader.isProcessLine(buf, from, lineEnd))
+            {
+                return MappedTraceReader.parseLine(buf, from, lineEnd, bounds, table, number);
+            }
+        }
+    }
+
+    /**
+     * Maps the window that follows the lines already read.
+     *
+     * @return true if a new window was mapped, false at the end of the file.
+     * @throws IOException If the file cannot be mapped or a line does not fit in a window.
+     */
+    private boolean mapNextWindow() throws IOException
+    {
+        windowStart += end;
+        if (windowStart >= fileSize)
+        {
+            return false;
+        }
+        int length = (int) Math.min(MappedTraceReader.WINDOW_SIZE, fileSize - windowStart);
+        buf = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+        end = length;
+        if (windowStart + length < fileSize)
+        {
+            end = MappedTraceReader.lastLineEnd(buf, length);
+            if (end == 0)
+            {
+                throw new MappedTraceReader.FormatException(line, "linea demasiado larga");
+            }
+        }
+        pos = 0;
+        return true;
+    }
+
+    /**
+     * Closes the input file.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        channel.close();
+    }
+}
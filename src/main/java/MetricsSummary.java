@@ -0,0 +1,371 @@
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+
+/**
+ * Running totals of the performance metrics (WT, CT, RT, TAT) of the finished processes.
+ * The totals are updated as each process finishes, so the averages are available at any
+ * time without another pass over the results. The sums are exact integers of two
+ * {@code long} words (a high word takes the carry of the low one), so they neither lose
+ * units as a {@code double} accumulator would nor overflow past {@code Long.MAX_VALUE} on
+ * long traces in microseconds. The smallest and largest value of every metric are kept too.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+public class MetricsSummary
+{
+    /** Number of processes added. */
+    private long count = 0;
+    /** Sum of the Waiting Times (low word, unsigned). */
+    private long totalWaitingTime = 0;
+    /** Sum of the Waiting Times (high word, signed). */
+    private long totalWaitingTimeHigh = 0;
+    /** Sum of the Completion Times (low word, unsigned). */
+    private long totalCompletionTime = 0;
+    /** Sum of the Completion Times (high word, signed). */
+    private long totalCompletionTimeHigh = 0;
+    /** Sum of the Response Times (low word, unsigned). */
+    private long totalResponseTime = 0;
+    /** Sum of the Response Times (high word, signed). */
+    private long totalResponseTimeHigh = 0;
+    /** Sum of the TurnAround Times (low word, unsigned). */
+    private long totalTurnAroundTime = 0;
+    /** Sum of the TurnAround Times (high word, signed). */
+    private long totalTurnAroundTimeHigh = 0;
+
+    /** Smallest Waiting Time. */
+    private long minWaitingTime = Long.MAX_VALUE;
+    /** Largest Waiting Time. */
+    private long maxWaitingTime = Long.MIN_VALUE;
+    /** Smallest Completion Time. */
+    private long minCompletionTime = Long.MAX_VALUE;
+    /** Largest Completion Time. */
+    private long maxCompletionTime = Long.MIN_VALUE;
+    /** Smallest Response Time. */
+    private long minResponseTime = Long.MAX_VALUE;
+    /** Largest Response Time. */
+    private long maxResponseTime = Long.MIN_VALUE;
+    /** Smallest TurnAround Time. */
+    private long minTurnAroundTime = Long.MAX_VALUE;
+    /** Largest TurnAround Time. */
+    private long maxTurnAroundTime = Long.MIN_VALUE;
+
+    /**
+     * Adds the metrics of one finished process.
+     *
+     * @param waitingTime    The Waiting Time (WT).
+     * @param completionTime The Completion Time (CT).
+     * @param responseTime   The Response Time (RT).
+     * @param turnAroundTime The TurnAround Time (TAT).
+     */
+    public void add(long waitingTime, long completionTime, long responseTime, long turnAroundTime)
+    {
+        count++;
+        // The high word gets the sign extension of the value and the carry of the low word
+        long sum = totalWaitingTime + waitingTime;
+        totalWaitingTimeHigh += (waitingTime >> 63) + carry(totalWaitingTime, sum);
+        totalWaitingTime = sum;
+        sum = totalCompletionTime + completionTime;
+        totalCompletionTimeHigh += (completionTime >> 63) + carry(totalCompletionTime, sum);
+        totalCompletionTime = sum;
+        sum = totalResponseTime + responseTime;
+        totalResponseTimeHigh += (responseTime >> 63) + carry(totalResponseTime, sum);
+        totalResponseTime = sum;
+        sum = totalTurnAroundTime + turnAroundTime;
+        totalTurnAroundTimeHigh += (turnAroundTime >> 63) + carry(totalTurnAroundTime, sum);
+        totalTurnAroundTime = sum;
+
+        minWaitingTime = Math.min(minWaitingTime, waitingTime);
+        maxWaitingTime = Math.max(maxWaitingTime, waitingTime);
+        minCompletionTime = Math.min(minCompletionTime, completionTime);
+        maxCompletionTime = Math.max(maxCompletionTime, completionTime);
+        minResponseTime = Math.min(minResponseTime, responseTime);
+        maxResponseTime = Math.max(maxResponseTime, responseTime);
+        minTurnAroundTime = Math.min(minTurnAroundTime, turnAroundTime);
+        maxTurnAroundTime = Math.max(maxTurnAroundTime, turnAroundTime);
+    }
+
+    /**
+     * Adds the metrics of one finished process.
+     *
+     * @param p The finished process.
+     */
+    public void add(Process p)
+    {
+        add(p.waitingTime, p.completionTime, p.responseTime, p.turnAroundTime);
+    }
+
+    /**
+     * Adds every process of another summary, as if they had been added one by one here.
+     *
+     * @param other The summary to add.
+     */
+    public void addAll(MetricsSummary other)
+    {
+        count += other.count;
+        long sum = totalWaitingTime + other.totalWaitingTime;
+        totalWaitingTimeHigh += other.totalWaitingTimeHigh + carry(totalWaitingTime, sum);
+        totalWaitingTime = sum;
+        sum = totalCompletionTime + other.totalCompletionTime;
+        totalCompletionTimeHigh += other.totalCompletionTimeHigh + carry(totalCompletionTime, sum);
+        totalCompletionTime = sum;
+        sum = totalResponseTime + other.totalResponseTime;
+        totalResponseTimeHigh += other.totalResponseTimeHigh + carry(totalResponseTime, sum);
+        totalResponseTime = sum;
+        sum = totalTurnAroundTime + other.totalTurnAroundTime;
+        totalTurnAroundTimeHigh += other.totalTurnAroundTimeHigh + carry(totalTurnAroundTime, sum);
+        totalTurnAroundTime = sum;
+
+        minWaitingTime = Math.min(minWaitingTime, other.minWaitingTime);
+        maxWaitingTime = Math.max(maxWaitingTime, other.maxWaitingTime);
+        minCompletionTime = Math.min(minCompletionTime, other.minCompletionTime);
+        maxCompletionTime = Math.max(maxCompletionTime, other.maxCompletionTime);
+        minResponseTime = Math.min(minResponseTime, other.minResponseTime);
+        maxResponseTime = Math.max(maxResponseTime, other.maxResponseTime);
+        minTurnAroundTime = Math.min(minTurnAroundTime, other.minTurnAroundTime);
+        maxTurnAroundTime = Math.max(maxTurnAroundTime, other.maxTurnAroundTime);
+    }
+
+    /**
+     * Removes every process added, so the totals can be reused for another simulation.
+     */
+    public void clear()
+    {
+        count = 0;
+        totalWaitingTime = 0;
+        totalCompletionTime = 0;
+        totalResponseTime = 0;
+        totalTurnAroundTime = 0;
+        totalWaitingTimeHigh = 0;
+        totalCompletionTimeHigh = 0;
+        totalResponseTimeHigh = 0;
+        totalTurnAroundTimeHigh = 0;
+        minWaitingTime = minCompletionTime = minResponseTime = minTurnAroundTime = Long.MAX_VALUE;
+        maxWaitingTime = maxCompletionTime = maxResponseTime = maxTurnAroundTime = Long.MIN_VALUE;
+    }
+
+    /**
+     * Gets the number of processes added.
+     *
+     * @return The number of finished processes.
+     */
+    public long getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Gets the average Waiting Time.
+     * @return The average WT (NaN if no process was added).
+     */
+    public double getAverageWaitingTime()
+    {
+        return average(totalWaitingTime, totalWaitingTimeHigh);
+    }
+
+    /**
+     * Gets the average Completion Time.
+     * @return The average CT (NaN if no process was added).
+     */
+    public double getAverageCompletionTime()
+    {
+        return average(totalCompletionTime, totalCompletionTimeHigh);
+    }
+
+    /**
+     * Gets the average Response Time.
+     * @return The average RT (NaN if no process was added).
+     */
+    public double getAverageResponseTime()
+    {
+        return average(totalResponseTime, totalResponseTimeHigh);
+    }
+
+    /**
+     * Gets the average TurnAround Time.
+     * @return The average TAT (NaN if no process was added).
+     */
+    public double getAverageTurnAroundTime()
+    {
+        return average(totalTurnAroundTime, totalTurnAroundTimeHigh);
+    }
+
+    /**
+     * Gets the exact sum of the Waiting Times.
+     * @return The sum of the Waiting Times.
+     * @throws ArithmeticException If the sum does not fit in a {@code long}.
+     */
+    public long getTotalWaitingTime()
+    {
+        return toLong(totalWaitingTime, totalWaitingTimeHigh);
+    }
+
+    /**
+     * Gets the exact sum of the Completion Times.
+     * @return The sum of the Completion Times.
+     * @throws ArithmeticException If the sum does not fit in a {@code long}.
+     */
+    public long getTotalCompletionTime()
+    {
+        return toLong(totalCompletionTime, totalCompletionTimeHigh);
+    }
+
+    /**
+     * Gets the exact sum of the Response Times.
+     * @return The sum of the Response Times.
+     * @throws ArithmeticException If the sum does not fit in a {@code long}.
+     */
+    public long getTotalResponseTime()
+    {
+        return toLong(totalResponseTime, totalResponseTimeHigh);
+    }
+
+    /**
+     * Gets the exact sum of the TurnAround Times.
+     * @return The sum of the TurnAround Times.
+     * @throws ArithmeticException If the sum does not fit in a {@code long}.
+     */
+    public long getTotalTurnAroundTime()
+    {
+        return toLong(totalTurnAroundTime, totalTurnAroundTimeHigh);
+    }
+
+    /**
+     * Gets the smallest Waiting Time.
+     * @return The smallest WT (Long.MAX_VALUE if no process was added).
+     */
+    public long getMinWaitingTime()
+    {
+        return minWaitingTime;
+    }
+
+    /**
+     * Gets the largest Waiting Time.
+     * @return The largest WT (Long.MIN_VALUE if no process was added).
+     */
+    public long getMaxWaitingTime()
+    {
+        return maxWaitingTime;
+    }
+
+    /**
+     * Gets the smallest Completion Time.
+     * @return The smallest CT (Long.MAX_VALUE if no process was added).
+     */
+    public long getMinCompletionTime()
+    {
+        return minCompletionTime;
+    }
+
+    /**
+     * Gets the largest Completion Time.
+     * @return The largest CT (Long.MIN_VALUE if no process was added).
+     */
+    public long getMaxCompletionTime()
+    {
+        return maxCompletionTime;
+    }
+
+    /**
+     * Gets the smallest Response Time.
+     * @return The smallest RT (Long.MAX_VALUE if no process was added).
+     */
+    public long getMinResponseTime()
+    {
+        return minResponseTime;
+    }
+
+    /**
+     * Gets the largest Response Time.
+     * @return The largest RT (Long.MIN_VALUE if no process was added).
+     */
+    public long getMaxResponseTime()
+    {
+        return maxResponseTime;
+    }
+
+    /**
+     * Gets the smallest TurnAround Time.
+     * @return The smallest TAT (Long.MAX_VALUE if no process was added).
+     */
+    public long getMinTurnAroundTime()
+    {
+        return minTurnAroundTime;
+    }
+
+    /**
+     * Gets the largest TurnAround Time.
+     * @return The largest TAT (Long.MIN_VALUE if no process was added).
+     */
+    public long getMaxTurnAroundTime()
+    {
+        return maxTurnAroundTime;
+    }
+
+    /**
+     * Divides a two-word sum by the number of processes. Sums up to 2^53 convert to double
+     * exactly, so the quotient is rounded only once; larger sums that fit in a {@code long}
+     * are split into the integer quotient and the remainder so that the units are not lost
+     * before dividing, and sums past a {@code long} are divided as decimals.
+     *
+     * @param low  The low word of the sum.
+     * @param high The high word of the sum.
+     * @return The average (NaN if no process was added).
+     */
+    private double average(long low, long high)
+    {
+        if (high != low >> 63)
+        {
+            return new BigDecimal(toBigInteger(low, high))
+                    .divide(BigDecimal.valueOf(count), MathContext.DECIMAL64).doubleValue();
+        }
+        if (count == 0 || Math.abs(low) <= (1L << 53))
+        {
+            return (double) low / count;
+        }
+        return low / count + (double) (low % count) / count;
+    }
+
+    /**
+     * Gets a two-word sum as a {@code long}.
+     *
+     * @param low  The low word of the sum.
+     * @param high The high word of the sum.
+     * @return The sum.
+     * @throws ArithmeticException If the sum does not fit in a {@code long}.
+     */
+    private static long toLong(long low, long high)
+    {
+        if (high != low >> 63)
+        {
+            throw new ArithmeticException("La suma no cabe en un long: " + toBigInteger(low, high));
+        }
+        return low;
+    }
+
+    /**
+     * Gets a two-word sum as a {@link BigInteger}.
+     *
+     * @param low  The low word of the sum (unsigned).
+     * @param high The high word of the sum (signed).
+     * @return The sum.
+     */
+    private static BigInteger toBigInteger(long low, long high)
+    {
+        BigInteger unsignedLow = new BigInteger(Long.toUnsignedString(low));
+        return BigInteger.valueOf(high).shiftLeft(64).add(unsignedLow);
+    }
+
+    /**
+     * Gets the carry out of an unsigned addition to a low word.
+     *
+     * @param before The low word before the addition.
+     * @param after  The low word after the addition.
+     * @return 1 if the addition wrapped around, 0 otherwise.
+     */
+    private static long carry(long before, long after)
+    {
+        return Long.compareUnsigned(after, before) < 0 ? 1 : 0;
+    }
+}
@@ -0,0 +1,674 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Simulates the Multilevel Queue (MLQ) algorithm on K CPUs (cores).
+ * Every core follows the same rules as {@link SchedulerMLQ}: the levels of the
+ * {@link SchedulerConfig} with their policies and quanta, and preemption of lower
+ * levels by higher ones. Where the ready processes wait is chosen by a {@link Placement}:
+ * one set of queues shared by every core, or one set per core with work stealing and
+ * periodic load balancing.
+ * All cores are driven by a single event loop. The end of the slice of every busy core
+ * is kept in an {@link IndexedIntHeap}, and the clock jumps from event to event
+ * (arrivals, completions, quantum expiries and balancing rounds), so the cost grows with
+ * the number of events and not with K times the simulated time. A running process is
+ * only charged for the time it ran when its slice ends or it is preempted.
+ * With one core both placements produce the same results as {@link SchedulerMLQ}.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+public class MultiCoreSchedulerMLQ
+{
+    /** Id used for idle cores and empty queues. */
+    private static final int IDLE = -1;
+
+    /** Default time between two load balancing rounds in {@link Placement#PER_CORE} mode. */
+    public static final int DEFAULT_BALANCE_INTERVAL = 100;
+
+    /**
+     * Where ready processes wait for a core.
+     */
+    public enum Placement
+    {
+        /** One set of queues shared by every core: any idle core takes the best process. */
+        GLOBAL,
+        /**
+         * One set of queues per core: arrivals go to the least loaded core, an idle core
+         * steals from the busiest one, and the loads are balanced periodically.
+         */
+        PER_CORE
+    }
+
+    /** Column storage with all processes read from the file, addressed by process id. */
+    private final ProcessTable table;
+    /** Queue topology: scheduling policy and time quantum of each level. */
+    private final SchedulerConfig config;
+    /** How the ready processes are distributed among the cores. */
+    private final Placement placement;
+
+    /** Ids of the processes in the order they finished execution. */
+    private final int[] finishedProcesses;
+    /** Number of processes that have finished so far. */
+    private int finishedCount = 0;
+    /** Number of processes that have been admitted to the ready queues so far. */
+    private int admittedCount = 0;
+    /** Running totals of the metrics of the finished processes. */
+    private final MetricsSummary summary = new MetricsSummary();
+
+    /** All process ids sorted by arrival time (stable, so input order breaks ties). */
+    private final int[] arrivalOrder;
+    /** Index in {@link #arrivalOrder} of the next process that has not arrived yet. */
+    private int arrivalCursor = 0;
+
+    /** Queues of each set, level 1 first (one set, or one per core). */
+    private final ReadyQueue[][] queues;
+    /** Bit {@code i} of entry {@code s} is set when level {@code i} of set {@code s} is not empty. */
+    private final long[] nonEmptyLevels;
+    /** Number of processes waiting in each set. */
+    private final int[] waiting;
+
+    /** Id of the process running on each core ({@link #IDLE} if idle). */
+    private final int[] running;
+    /** Time at which the current slice of each core started. */
+    private final long[] sliceStart;
+    /** Time each core has spent running processes. */
+    private final long[] busyTime;
+    /** Busy cores, keyed by the end of their slice (then by core). */
+    private final IndexedIntHeap sliceEnds;
+
+    /** Global simulation clock. */
+    private long actualTime = 0;
+    /** Time between two load balancing rounds. */
+    private int balanceInterval = DEFAULT_BALANCE_INTERVAL;
+    /** Time of the next load balancing round. */
+    private long nextBalance = DEFAULT_BALANCE_INTERVAL;
+
+    /**
+     * Constructor for the multi-core MLQ Simulator.
+     *
+     * @param table     The table with all processes loaded from the file.
+     * @param config    The levels with their policies and quanta.
+     * @param cores     The number of CPUs.
+     * @param placement Where the ready processes wait.
+     * @throws IllegalArgumentException If the number of cores is not positive, or the
+     *                                  configuration is in MLFQ mode or has context switch
+     *                                  overhead (not supported on K CPUs).
+     */
+    public MultiCoreSchedulerMLQ(ProcessTable table, SchedulerConfig config, int cores, Placement placement)
+    {
+        if (cores < 1)
+        {
+            throw new IllegalArgumentException("Numero de CPUs invalido: " + cores);
+        }
+        if (config.isFeedback())
+        {
+            throw new IllegalArgumentException("El modo MLFQ no esta soportado con varias CPUs");
+        }
+        if (config.hasOverhead())
+        {
+            throw new IllegalArgumentException("El coste de cambio de contexto no esta soportado con varias CPUs");
+        }
+        this.table = table;
+        this.config = config;
+        this.placement = placement;
+        this.finishedProcesses = new int[table.size()];
+        this.arrivalOrder = SchedulerMLQ.sortByArrival(table);
+
+        int sets = placement == Placement.GLOBAL ? 1 : cores;
+        this.queues = new ReadyQueue[sets][config.getLevels()];
+        for (int s = 0; s < sets; s++)
+        {
+            for (int level = 0; level < config.getLevels(); level++)
+            {
+                queues[s][level] = SchedulerMLQ.createQueue(config.getPolicy(level + 1), table);
+            }
+        }
+        this.nonEmptyLevels = new long[sets];
+        this.waiting = new int[sets];
+
+        this.running = new int[cores];
+        Arrays.fill(running, IDLE);
+        this.sliceStart = new long[cores];
+        this.busyTime = new long[cores];
+        this.sliceEnds = new IndexedIntHeap(cores);
+    }
+
+    /**
+     * Sets the time between two load balancing rounds in {@link Placement#PER_CORE} mode.
+     *
+     * @param balanceInterval The interval ({@link #DEFAULT_BALANCE_INTERVAL} by default).
+     * @throws IllegalArgumentException If the interval is not positive.
+     */
+    public void setBalanceInterval(int balanceInterval)
+    {
+        if (balanceInterval < 1)
+        {
+            throw new IllegalArgumentException("Intervalo de balanceo invalido: " + balanceInterval);
+        }
+        this.balanceInterval = balanceInterval;
+        this.nextBalance = balanceInterval;
+    }
+
+    /**
+     * Runs the simulation until all processes have finished.
+     * Every iteration handles one point in time, in the same order as the single-CPU engines:
+     * 1. SLICES: Cores whose slice ends now finish their process or return it to its queue.
+     * 2. ARRIVALS: Moves processes whose {@code arrivalTime} has been reached to the queues.
+     * 3. BALANCE: In per-core mode, evens out the loads when a balancing round is due.
+     * 4. DISPATCH: Idle cores take the best process, and better processes preempt worse ones.
+     * 5. ADVANCE: Jumps the clock to the next event.
+     */
+    public void simulate()
+    {
+        while (hasWork())
+        {
+            // 1. End the slices that finish now
+            endSlices();
+
+            // 2. Move processes from the total list to queues if they have arrived
+            admitArrivals();
+
+            // 3. Periodic load balancing
+            if (placement == Placement.PER_CORE && actualTime >= nextBalance)
+            {
+                balance();
+                nextBalance = (actualTime / balanceInterval + 1) * balanceInterval;
+            }
+
+            // 4. Preemption and dispatch on every core
+            if (placement == Placement.GLOBAL)
+            {
+                scheduleGlobal();
+            }
+            else
+            {
+                schedulePerCore();
+            }
+
+            // 5. Jump to the next event
+            long next = nextEventTime();
+            if (next == Long.MAX_VALUE)
+            {
+                // Nothing running and nothing left to arrive
+                break;
+            }
+            actualTime = next;
+        }
+    }
+
+    /**
+     * Gets the time of the next event: an arrival, the end of a slice or, when processes
+     * are waiting in per-core mode, a load balancing round.
+     *
+     * @return The time of the next event, or {@code Long.MAX_VALUE} if there is none.
+     */
+    private long nextEventTime()
+    {
+        long next = Long.MAX_VALUE;
+        if (arrivalCursor < arrivalOrder.length)
+        {
+            next = table.arrivalTime[arrivalOrder[arrivalCursor]];
+        }
+        if (!sliceEnds.isEmpty())
+        {
+            next = Math.min(next, sliceEnd(sliceEnds.peek()));
+        }
+        if (placement == Placement.PER_CORE)
+        {
+            for (int s = 0; s < waiting.length; s++)
+            {
+                if (waiting[s] > 0)
+                {
+                    next = Math.min(next, nextBalance);
+                    break;
+                }
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Checks if there is still work to simulate: admitted processes that have not
+     * finished, or processes that have not arrived yet.
+     *
+     * @return true if the simulation must go on, false otherwise.
+     */
+    private boolean hasWork()
+    {
+        return finishedCount < admittedCount || arrivalCursor < arrivalOrder.length;
+    }
+
+    /**
+     * Ends every slice that finishes at the current time, in core order: the process
+     * finishes if it has nothing left, otherwise its quantum expired and it goes back
+     * to the queues of its core.
+     */
+    private void endSlices()
+    {
+        while (!sliceEnds.isEmpty() && sliceEnd(sliceEnds.peek()) == actualTime)
+        {
+            int core = sliceEnds.poll();
+            int p = stop(core);
+            if (table.itsOver(p))
+            {
+                finish(p, actualTime);
+            }
+            else
+            {
+                returnProcessToQueue(setOf(core), p);
+            }
+        }
+    }
+
+    /**
+     * Moves every process whose arrival time has been reached to a ready queue:
+     * the shared set, or the set of the least loaded core.
+     */
+    private void admitArrivals()
+    {
+        while (arrivalCursor < arrivalOrder.length
+                && table.arrivalTime[arrivalOrder[arrivalCursor]] <= actualTime)
+        {
+            int id = arrivalOrder[arrivalCursor++];
+            checkQueue(id);
+            returnProcessToQueue(placement == Placement.GLOBAL ? 0 : leastLoadedCore(), id);
+            admittedCount++;
+        }
+    }
+
+    /**
+     * Dispatches from the shared queues: idle cores take the best processes in core order,
+     * then every waiting process that should preempt a running one takes the core of the
+     * worst running process.
+     */
+    private void scheduleGlobal()
+    {
+        for (int core = 0; core < running.length && waiting[0] > 0; core++)
+        {
+            if (running[core] == IDLE)
+            {
+                dispatch(core, 0);
+            }
+        }
+        while (waiting[0] > 0)
+        {
+            int victim = findVictim(getBetterProcess(0));
+            if (victim == IDLE)
+            {
+                break;
+            }
+            returnProcessToQueue(0, stop(victim));
+            dispatch(victim, 0);
+        }
+    }
+
+    /**
+     * Dispatches every core from its own queues. An idle core with nothing to run first
+     * steals the best process of the busiest core; preemption only happens inside a core.
+     */
+    private void schedulePerCore()
+    {
+        for (int core = 0; core < running.length; core++)
+        {
+            if (running[core] == IDLE && waiting[core] == 0)
+            {
+                steal(core);
+            }
+            int best = getBetterProcess(core);
+            if (best == IDLE)
+            {
+                continue;
+            }
+            if (running[core] != IDLE && shouldPreempt(best, core))
+            {
+                returnProcessToQueue(core, stop(core));
+            }
+            if (running[core] == IDLE)
+            {
+                dispatch(core, core);
+            }
+        }
+    }
+
+    /**
+     * Moves the best waiting process of the busiest core to an idle core.
+     * A core that is idle itself keeps its only waiting process.
+     *
+     * @param core The idle core.
+     */
+    private void steal(int core)
+    {
+        int victim = IDLE;
+        for (int c = 0; c < running.length; c++)
+        {
+            int spare = waiting[c] - (running[c] == IDLE ? 1 : 0);
+            if (c != core && spare > 0 && (victim == IDLE || waiting[c] > waiting[victim]))
+            {
+                victim = c;
+            }
+        }
+        if (victim != IDLE)
+        {
+            returnProcessToQueue(core, take(victim));
+        }
+    }
+
+    /**
+     * Evens out the loads of the cores: moves waiting processes from the most loaded
+     * core to the least loaded one until they differ by at most one.
+     */
+    private void balance()
+    {
+        while (true)
+        {
+            int most = 0;
+            int least = 0;
+            for (int c = 1; c < running.length; c++)
+            {
+                if (load(c) > load(most))
+                {
+                    most = c;
+                }
+                if (load(c) < load(least))
+                {
+                    least = c;
+                }
+            }
+            if (load(most) - load(least) <= 1 || waiting[most] == 0)
+            {
+                return;
+            }
+            returnProcessToQueue(least, take(most));
+        }
+    }
+
+    /**
+     * Gets the core with the fewest processes, running or waiting (the first one on ties).
+     *
+     * @return The least loaded core.
+     */
+    private int leastLoadedCore()
+    {
+        int least = 0;
+        for (int c = 1; c < running.length; c++)
+        {
+            if (load(c) < load(least))
+            {
+                least = c;
+            }
+        }
+        return least;
+    }
+
+    /**
+     * Gets the number of processes of a core in per-core mode, running or waiting.
+     *
+     * @param core The core.
+     * @return Its load.
+     */
+    private int load(int core)
+    {
+        return waiting[core] + (running[core] == IDLE ? 0 : 1);
+    }
+
+    /**
+     * Finds the core whose process should give way to a waiting process: among the cores
+     * it should preempt, the one running the lowest level, then the most remaining time.
+     *
+     * @param best The id of the waiting process.
+     * @return The core to preempt, or {@link #IDLE} if the process preempts no one.
+     */
+    private int findVictim(int best)
+    {
+        int victim = IDLE;
+        for (int core = 0; core < running.length; core++)
+        {
+            if (running[core] == IDLE || !shouldPreempt(best, core))
+            {
+                continue;
+            }
+            if (victim == IDLE || isWorse(core, victim))
+            {
+                victim = core;
+            }
+        }
+        return victim;
+    }
+
+    /**
+     * Checks if the process on a core is a better preemption victim than the one on another.
+     *
+     * @param core  The candidate core.
+     * @param other The current victim.
+     * @return true if the candidate runs a lower level, or the same level with more time left.
+     */
+    private boolean isWorse(int core, int other)
+    {
+        int queue = table.queueId[running[core]];
+        int otherQueue = table.queueId[running[other]];
+        if (queue != otherQueue)
+        {
+            return queue > otherQueue;
+        }
+        return remainingTime(core) > remainingTime(other);
+    }
+
+    /**
+     * Checks if a waiting process must take a core from the process running on it.
+     * A process of a higher level always preempts. Inside an SRTF level, a process with
+     * strictly less remaining time also preempts; ties keep the running process.
+     *
+     * @param best The id of the waiting process.
+     * @param core The busy core.
+     * @return true if the running process must go back to its queue, false otherwise.
+     */
+    private boolean shouldPreempt(int best, int core)
+    {
+        int bestQueue = table.queueId[best];
+        int runningQueue = table.queueId[running[core]];
+        if (bestQueue != runningQueue)
+        {
+            return bestQueue < runningQueue;
+        }
+        return config.getPolicy(runningQueue) == Policy.SRTF
+                && table.remainingBurstTime[best] < remainingTime(core);
+    }
+
+    /**
+     * Gets the remaining burst time of the process on a core at the current time,
+     * counting the part of its slice already run.
+     *
+     * @param core The busy core.
+     * @return The time the process still needs.
+     */
+    private long remainingTime(int core)
+    {
+        int p = running[core];
+        return Math.max(table.remainingBurstTime[p] - (actualTime - sliceStart[core]), 0);
+    }
+
+    /**
+     * Starts the best process of a set on a core, for a slice that lasts until it finishes
+     * or its quantum expires.
+     *
+     * @param core The idle core.
+     * @param set  The set of queues to take the process from.
+     */
+    private void dispatch(int core, int set)
+    {
+        int p = take(set);
+        running[core] = p;
+        if (!table.started[p])
+        {
+            table.responseTime[p] = actualTime - table.arrivalTime[p];
+            table.started[p] = true;
+        }
+        sliceStart[core] = actualTime;
+
+        // A process with nothing left still takes one tick, as in the single-CPU engines
+        long slice = Math.max(table.remainingBurstTime[p], 1);
+        slice = Math.min(slice, config.getSliceLimit(table.queueId[p]));
+        sliceEnds.add(core, actualTime + slice, core);
+    }
+
+    /**
+     * Takes the process off a core, charging it for the part of its slice already run.
+     *
+     * @param core The busy core.
+     * @return The id of the process that was running.
+     */
+    private int stop(int core)
+    {
+        int p = running[core];
+        long ran = actualTime - sliceStart[core];
+        table.runTicks(p, ran);
+        busyTime[core] += ran;
+        running[core] = IDLE;
+        sliceEnds.remove(core);
+        return p;
+    }
+
+    /**
+     * Gets the time at which the slice of a busy core ends.
+     *
+     * @param core The busy core.
+     * @return The end of its slice.
+     */
+    private long sliceEnd(int core)
+    {
+        int p = running[core];
+        long slice = Math.max(table.remainingBurstTime[p], 1);
+        return sliceStart[core] + Math.min(slice, config.getSliceLimit(table.queueId[p]));
+    }
+
+    /**
+     * Gets the best process waiting in a set, respecting queue priority (Q1 > Q2 > Q3 > ...).
+     *
+     * @param set The set of queues.
+     * @return The id of the best process, or {@link #IDLE} if the set is empty.
+     */
+    private int getBetterProcess(int set)
+    {
+        if (nonEmptyLevels[set] == 0) return IDLE;
+        return queues[set][Long.numberOfTrailingZeros(nonEmptyLevels[set])].peek();
+    }
+
+    /**
+     * Removes the best process waiting in a set.
+     *
+     * @param set The set of queues (not empty).
+     * @return The id of the process.
+     */
+    private int take(int set)
+    {
+        int level = Long.numberOfTrailingZeros(nonEmptyLevels[set]);
+        int p = queues[set][level].poll();
+        if (queues[set][level].isEmpty())
+        {
+            nonEmptyLevels[set] &= ~(1L << level);
+        }
+        waiting[set]--;
+        return p;
+    }
+
+    /**
+     * Puts a process in its level of a set of queues, ordered by the level's policy.
+     *
+     * @param set The set of queues.
+     * @param p   The id of the process.
+     */
+    private void returnProcessToQueue(int set, int p)
+    {
+        int level = table.queueId[p] - 1;
+        queues[set][level].add(p, config.getPolicy(level + 1).orderingPriority(table, p));
+        nonEmptyLevels[set] |= 1L << level;
+        waiting[set]++;
+    }
+
+    /**
+     * Gets the set of queues a core takes its processes from.
+     *
+     * @param core The core.
+     * @return Its set.
+     */
+    private int setOf(int core)
+    {
+        return placement == Placement.GLOBAL ? 0 : core;
+    }
+
+    /**
+     * Checks that a process being admitted belongs to one of the configured levels.
+     *
+     * @param p The id of the process.
+     * @throws IllegalArgumentException If its queue does not exist.
+     */
+    private void checkQueue(int p)
+    {
+        int queueId = table.queueId[p];
+        if (queueId < 1 || queueId > config.getLevels())
+        {
+            throw new IllegalArgumentException("Cola invalida para el proceso " + table.label[p]
+                    + ": " + queueId + " (niveles: 1.." + config.getLevels() + ")");
+        }
+    }
+
+    /**
+     * Completes a process: calculates its metrics and adds them to the running totals.
+     *
+     * @param p         The id of the process that finished.
+     * @param currentCT The value of the clock when it finished.
+     */
+    private void finish(int p, long currentCT)
+    {
+        table.calculateMetrics(p, currentCT);
+        summary.add(table.waitingTime[p], table.completionTime[p],
+                table.responseTime[p], table.turnAroundTime[p]);
+        finishedProcesses[finishedCount++] = p;
+    }
+
+    /**
+     * Gets the fraction of the simulated time each core spent running processes.
+     * The simulated time goes from 0 to the last completion.
+     *
+     * @return The utilization of each core, between 0 and 1, core 1 first.
+     */
+    public double[] getUtilization()
+    {
+        double[] utilization = new double[running.length];
+        for (int core = 0; core < running.length; core++)
+        {
+            utilization[core] = actualTime == 0 ? 0 : (double) busyTime[core] / actualTime;
+        }
+        return utilization;
+    }
+
+    /**
+     * Gets the running totals of the metrics of the finished processes.
+     *
+     * @return The metrics summary.
+     */
+    public MetricsSummary getSummary()
+    {
+        return summary;
+    }
+
+    /**
+     * Gets the list of all processes that have completed their execution,
+     * sorted by label (A, B, C...) for clean output.
+     *
+     * @return A list of {@code Process} objects with all their metrics calculated.
+     */
+    public List<Process> getResults()
+    {
+        List<Process> results = new ArrayList<>(finishedCount);
+        for (int i = 0; i < finishedCount; i++)
+        {
+            results.add(table.toProcess(finishedProcesses[i]));
+        }
+        results.sort(Comparator.comparing(p -> p.label));
+        return results;
+    }
+}
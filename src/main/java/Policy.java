@@ -0,0 +1,44 @@
+/**
+ * Scheduling policy of one MLQ level: the order in which its ready processes get the CPU.
+ * Every policy breaks ties in FIFO order, and every level still applies its quantum.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+public enum Policy
+{
+    /**
+     * Round Robin by internal priority: the highest priority runs first and, when its
+     * quantum expires, goes back behind the processes of the same priority.
+     * With no quantum ({@code Integer.MAX_VALUE}) it serves strictly by priority.
+     */
+    RR,
+    /** Shortest Job First: the shortest {@code burstTime} runs first, without preemption inside the level. */
+    SJF,
+    /**
+     * Shortest Remaining Time First: the shortest {@code remainingBurstTime} runs first, and a
+     * process of the same level with less remaining time preempts the one on the CPU.
+     */
+    SRTF;
+
+    /**
+     * Gets the ordering priority of a process in a ready queue of this policy (higher leaves first).
+     *
+     * @param table The table of processes.
+     * @param id    The id of the process.
+     * @return The internal priority for RR, or the negated burst (SJF) or remaining (SRTF)
+     *         time, so the shortest job leaves first.
+     */
+    long orderingPriority(ProcessTable table, int id)
+    {
+        switch (this)
+        {
+            case SJF:
+                return -table.burstTime[id];
+            case SRTF:
+                return -table.remainingBurstTime[id];
+            default:
+                return table.priority[id];
+        }
+    }
+}
@@ -12,9 +12,9 @@ public class Process
     /** Identifier label for the process ("A", "B"). */
     String label;
     /** The total CPU time required by the process (original Burst Time). */
-    int burstTime;
+    long burstTime;
     /** The moment the process arrives in the system (Arrival Time). */
-    int arrivalTime;
+    long arrivalTime;
     /** The ID of the multilevel queue this process belongs to (1, 2, or 3). */
     int queueId;
     /** The internal priority of the process within its queue (5 > 1). */
@@ -22,19 +22,21 @@ public class Process
 
     // State Attributes
     /** The remaining CPU time the process still needs to execute. */
-    int remainingBurstTime;
+    long remainingBurstTime;
     /** Flag to calculate Response Time (RT) the first time it runs. */
     boolean isFirstTime = true;
+    /** Flag set once the process has completed and its metrics are calculated. */
+    boolean isFinished = false;
 
     // Output Attributes
     /** The exact moment the process finishes its execution (Completion Time). */
-    int completionTime;
+    long completionTime;
     /** Time from arrival (AT) until it runs for the first time (Response Time). */
-    int responseTime;
+    long responseTime;
     /** Total time the process spends in the ready queues (Waiting Time). */
-    int waitingTime;
+    long waitingTime;
     /** Total time from arrival (AT) to completion (CT) (TurnAround Time). */
-    int turnAroundTime;
+    long turnAroundTime;
 
     /**
      * Constructor to create a new Process.
@@ -45,7 +47,7 @@ public class Process
      * @param queueId     The MLQ queue it is assigned to (1, 2, or 3).
      * @param priority    The internal priority within its queue (5 is highest).
      */
-    public Process(String label, int burstTime, int arrivalTime, int queueId, int priority)
+    public Process(String label, long burstTime, long arrivalTime, int queueId, int priority)
     {
         this.label = label;
         this.burstTime = burstTime;
@@ -68,6 +70,17 @@ public class Process
         }
     }
 
+    /**
+     * Simulates the execution of the process for several consecutive time units.
+     * Equivalent to calling {@link #runTick()} {@code ticks} times.
+     *
+     * @param ticks The number of time units to run.
+     */
+    public void runTicks(long ticks)
+    {
+        remainingBurstTime = Math.max(remainingBurstTime - ticks, 0);
+    }
+
     /**
      * Checks if the process has completed all its execution.
      *
@@ -81,15 +94,17 @@ public class Process
     /**
      * Calculates the final performance metrics (CT, TAT, WT) for this process.
      * Response Time (RT) is calculated during the simulation.
+     * Also marks the process as finished.
      *
      * @param currentCT The value of the global clock (currentTime)
      * when the process finished.
      */
-    public void calculateMetrics(int currentCT)
+    public void calculateMetrics(long currentCT)
     {
         this.completionTime = currentCT;
         this.turnAroundTime = this.completionTime - this.arrivalTime;
         this.waitingTime = this.turnAroundTime - this.burstTime;
+        this.isFinished = true;
     }
 
     //Getters and Setters
@@ -106,7 +121,7 @@ public class Process
      * Gets the arrival time of the process.
      * @return The arrival time (AT).
      */
-    public int getArrivalTime()
+    public long getArrivalTime()
     {
         return arrivalTime;
     }
@@ -0,0 +1,22 @@
+import java.io.IOException;
+
+/**
+ * Lazy source of processes for the streaming mode of {@link SchedulerMLQ}.
+ * Processes are pulled one at a time, as the simulation clock reaches them,
+ * so the whole trace never has to be in memory. They must come in
+ * non-decreasing order of arrival time.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+public interface ProcessSource
+{
+    /**
+     * Reads the next process into a free row of the table.
+     *
+     * @param table The table where the process is stored.
+     * @return The id of the new row, or -1 if there are no more processes.
+     * @throws IOException If the process cannot be read.
+     */
+    int next(ProcessTable table) throws IOException;
+}
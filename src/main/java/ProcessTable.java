@@ -0,0 +1,385 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Column-oriented storage for all the processes of a simulation.
+ * Instead of one {@link Process} object per job, every attribute is kept in its own
+ * primitive array and a process is identified by its index (the process id).
+ * This keeps large traces compact in memory and lets the scheduler work on plain
+ * primitives. Times are {@code long} values, so traces with fine-grained timestamps
+ * (such as microseconds) can span days without overflowing.
+ * {@link Process} objects are only built on demand with {@link #toProcess(int)}.
+ * Rows can be released and reused, so a streaming simulation only needs as many rows
+ * as there are live processes.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+public class ProcessTable
+{
+    /** Initial capacity used when none is given. */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /** Number of rows in use or released (ids are always below this value). */
+    private int size = 0;
+    /** Ids of released rows, reused by {@link #add} before growing the table. */
+    private int[] freeIds = new int[0];
+    /** Number of ids in {@link #freeIds}. */
+    private int freeCount = 0;
+    /** Lowest priority stored so far. */
+    private int minPriority = Integer.MAX_VALUE;
+    /** Highest priority stored so far. */
+    private int maxPriority = Integer.MIN_VALUE;
+
+    // Input Columns
+    /** Identifier label of each process ("A", "B"). */
+    String[] label;
+    /** Total CPU time required by each process (Burst Time). */
+    long[] burstTime;
+    /** Moment each process arrives in the system (Arrival Time). */
+    long[] arrivalTime;
+    /** Multilevel queue each process belongs to (1, 2, or 3). */
+    int[] queueId;
+    /** Internal priority of each process within its queue (5 > 1). */
+    int[] priority;
+
+    // State Columns
+    /** Remaining CPU time each process still needs to execute. */
+    long[] remainingBurstTime;
+    /** Whether each process has already been on the CPU (used to calculate RT). */
+    boolean[] started;
+    /** Whether each process has completed and its metrics are calculated. */
+    boolean[] finished;
+    /** Queue level each process is scheduled in now (its queueId, unless MLFQ moved it). */
+    int[] level;
+
+    // Output Columns
+    /** Completion Time of each process. */
+    long[] completionTime;
+    /** Response Time of each process. */
+    long[] responseTime;
+    /** Waiting Time of each process. */
+    long[] waitingTime;
+    /** TurnAround Time of each process. */
+    long[] turnAroundTime;
+
+    /**
+     * Creates an empty table with a default initial capacity.
+     */
+    public ProcessTable()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty table able to hold {@code capacity} processes before growing.
+     *
+     * @param capacity The initial capacity.
+     */
+    public ProcessTable(int capacity)
+    {
+        allocate(Math.max(capacity, 1));
+    }
+
+    /**
+     * Creates a table that shares the input columns of another one and has its own
+     * state and output columns, as if none of its processes had run yet.
+     *
+     * @param input The table whose input columns are shared.
+     */
+    private ProcessTable(ProcessTable input)
+    {
+        int capacity = input.label.length;
+        label = input.label;
+        burstTime = input.burstTime;
+        arrivalTime = input.arrivalTime;
+        queueId = input.queueId;
+        priority = input.priority;
+        remainingBurstTime = Arrays.copyOf(input.burstTime, capacity);
+        started = new boolean[capacity];
+        finished = new boolean[capacity];
+        level = new int[capacity];
+        completionTime = new long[capacity];
+        responseTime = new long[capacity];
+        waitingTime = new long[capacity];
+        turnAroundTime = new long[capacity];
+        size = input.size;
+        minPriority = input.minPriority;
+        maxPriority = input.maxPriority;
+    }
+
+    /**
+     * Creates a table for another simulation of the same processes.
+     * The input columns (label, burst, arrival, queue, priority) are shared, not copied,
+     * and only the state and output columns are new, so many simulations can run on one
+     * parsed trace at the same time. Neither table may add or release processes while
+     * they are shared.
+     *
+     * @return A new table with the same processes and no simulation state.
+     */
+    public ProcessTable shareInput()
+    {
+        return new ProcessTable(this);
+    }
+
+    /**
+     * Builds a table with the input attributes of a list of processes.
+     *
+     * @param processes The processes to copy, in order (their index becomes their id).
+     * @return A new table with one row per process.
+     */
+    public static ProcessTable fromList(List<Process> processes)
+    {
+        ProcessTable table = new ProcessTable(processes.size());
+        for (int i = 0; i < processes.size(); i++)
+        {
+            Process p = processes.get(i);
+            table.add(p.label, p.burstTime, p.arrivalTime, p.queueId, p.priority);
+        }
+        return table;
+    }
+
+    /**
+     * Appends a new process to the table, reusing a released row if there is one.
+     *
+     * @param label       The unique identifier for the process.
+     * @param burstTime   The total required CPU time.
+     * @param arrivalTime The arrival time into the system.
+     * @param queueId     The MLQ queue it is assigned to (1, 2, or 3).
+     * @param priority    The internal priority within its queue (5 is highest).
+     * @return The id assigned to the new process.
+     */
+    public int add(String label, long burstTime, long arrivalTime, int queueId, int priority)
+    {
+        int id;
+        if (freeCount > 0)
+        {
+            id = freeIds[--freeCount];
+        }
+        else
+        {
+            if (size == this.label.length)
+            {
+                grow(size * 2);
+            }
+            id = size++;
+        }
+        this.label[id] = label;
+        this.burstTime[id] = burstTime;
+        this.arrivalTime[id] = arrivalTime;
+        this.queueId[id] = queueId;
+        this.priority[id] = priority;
+        this.remainingBurstTime[id] = burstTime;
+        minPriority = Math.min(minPriority, priority);
+        maxPriority = Math.max(maxPriority, priority);
+        return id;
+    }
+
+    /**
+     * Appends the input attributes of every process of another table, in order.
+     *
+     * @param other The table whose processes are appended.
+     */
+    public void addAll(ProcessTable other)
+    {
+        int n = other.size;
+        if (size + n > label.length)
+        {
+            grow(Math.max(size + n, size * 2));
+        }
+        System.arraycopy(other.label, 0, label, size, n);
+        System.arraycopy(other.burstTime, 0, burstTime, size, n);
+        System.arraycopy(other.arrivalTime, 0, arrivalTime, size, n);
+        System.arraycopy(other.queueId, 0, queueId, size, n);
+        System.arraycopy(other.priority, 0, priority, size, n);
+        System.arraycopy(other.burstTime, 0, remainingBurstTime, size, n);
+        size += n;
+        minPriority = Math.min(minPriority, other.minPriority);
+        maxPriority = Math.max(maxPriority, other.maxPriority);
+    }
+
+    /**
+     * Releases a row so that {@link #add} can reuse its id.
+     * Its state and output columns are cleared.
+     *
+     * @param id The id of the row to release.
+     */
+    public void release(int id)
+    {
+        label[id] = null;
+        started[id] = false;
+        finished[id] = false;
+        completionTime[id] = 0;
+        responseTime[id] = 0;
+        waitingTime[id] = 0;
+        turnAroundTime[id] = 0;
+        if (freeCount == freeIds.length)
+        {
+            freeIds = Arrays.copyOf(freeIds, Math.max(16, freeCount * 2));
+        }
+        freeIds[freeCount++] = id;
+    }
+
+    /**
+     * Gets the number of rows of the table. All ids are below this value;
+     * when no row has been released it is the number of processes stored.
+     *
+     * @return The number of rows.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Gets the lowest priority in the table.
+     *
+     * @return The minimum priority, or {@code Integer.MAX_VALUE} if the table is empty.
+     */
+    public int getMinPriority()
+    {
+        return minPriority;
+    }
+
+    /**
+     * Gets the highest priority in the table.
+     *
+     * @return The maximum priority, or {@code Integer.MIN_VALUE} if the table is empty.
+     */
+    public int getMaxPriority()
+    {
+        return maxPriority;
+    }
+
+    /**
+     * Simulates the execution of a process for several consecutive time units.
+     *
+     * @param id    The process id.
+     * @param ticks The number of time units to run.
+     */
+    public void runTicks(int id, long ticks)
+    {
+        remainingBurstTime[id] = Math.max(remainingBurstTime[id] - ticks, 0);
+    }
+
+    /**
+     * Restores every process to its state before the simulation, from the input columns:
+     * the remaining burst time is the whole burst and the state and output columns are
+     * cleared. The columns are reused, so nothing is allocated.
+     */
+    public void reset()
+    {
+        System.arraycopy(burstTime, 0, remainingBurstTime, 0, size);
+        Arrays.fill(started, 0, size, false);
+        Arrays.fill(finished, 0, size, false);
+        Arrays.fill(completionTime, 0, size, 0);
+        Arrays.fill(responseTime, 0, size, 0);
+        Arrays.fill(waitingTime, 0, size, 0);
+        Arrays.fill(turnAroundTime, 0, size, 0);
+    }
+
+    /**
+     * Checks if a process has completed all its execution.
+     *
+     * @param id The process id.
+     * @return true if its remaining burst time is 0, false otherwise.
+     */
+    public boolean itsOver(int id)
+    {
+        return remainingBurstTime[id] == 0;
+    }
+
+    /**
+     * Calculates the final performance metrics (CT, TAT, WT) of a process
+     * and marks it as finished.
+     *
+     * @param id        The process id.
+     * @param currentCT The value of the global clock when the process finished.
+     */
+    public void calculateMetrics(int id, long currentCT)
+    {
+        completionTime[id] = currentCT;
+        turnAroundTime[id] = currentCT - arrivalTime[id];
+        waitingTime[id] = turnAroundTime[id] - burstTime[id];
+        finished[id] = true;
+    }
+
+    /**
+     * Builds a {@link Process} object with the current state of a row.
+     *
+     * @param id The process id.
+     * @return A new {@code Process} with the input, state and output attributes of the row.
+     */
+    public Process toProcess(int id)
+    {
+        Process p = new Process(label[id], burstTime[id], arrivalTime[id], queueId[id], priority[id]);
+        p.remainingBurstTime = remainingBurstTime[id];
+        p.isFirstTime = !started[id];
+        p.isFinished = finished[id];
+        p.completionTime = completionTime[id];
+        p.responseTime = responseTime[id];
+        p.waitingTime = waitingTime[id];
+        p.turnAroundTime = turnAroundTime[id];
+        return p;
+    }
+
+    /**
+     * Builds a list of {@link Process} objects with every row of the table, in id order.
+     *
+     * @return A new list with one {@code Process} per row.
+     */
+    public List<Process> toList()
+    {
+        List<Process> processes = new ArrayList<>(size);
+        for (int id = 0; id < size; id++)
+        {
+            processes.add(toProcess(id));
+        }
+        return processes;
+    }
+
+    /**
+     * Allocates empty columns of the given capacity.
+     *
+     * @param capacity The number of rows to allocate.
+     */
+    private void allocate(int capacity)
+    {
+        label = new String[capacity];
+        burstTime = new long[capacity];
+        arrivalTime = new long[capacity];
+        queueId = new int[capacity];
+        priority = new int[capacity];
+        remainingBurstTime = new long[capacity];
+        started = new boolean[capacity];
+        finished = new boolean[capacity];
+        level = new int[capacity];
+        completionTime = new long[capacity];
+        responseTime = new long[capacity];
+        waitingTime = new long[capacity];
+        turnAroundTime = new long[capacity];
+    }
+
+    /**
+     * Grows every column to the given capacity, keeping the existing rows.
+     *
+     * @param capacity The new number of rows.
+     */
+    private void grow(int capacity)
+    {
+        label = Arrays.copyOf(label, capacity);
+        burstTime = Arrays.copyOf(burstTime, capacity);
+        arrivalTime = Arrays.copyOf(arrivalTime, capacity);
+        queueId = Arrays.copyOf(queueId, capacity);
+        priority = Arrays.copyOf(priority, capacity);
+        remainingBurstTime = Arrays.copyOf(remainingBurstTime, capacity);
+        started = Arrays.copyOf(started, capacity);
+        finished = Arrays.copyOf(finished, capacity);
+        level = Arrays.copyOf(level, capacity);
+        completionTime = Arrays.copyOf(completionTime, capacity);
+        responseTime = Arrays.copyOf(responseTime, capacity);
+        waitingTime = Arrays.copyOf(waitingTime, capacity);
+        turnAroundTime = Arrays.copyOf(turnAroundTime, capacity);
+    }
+}
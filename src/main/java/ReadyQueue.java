@@ -0,0 +1,55 @@
+/**
+ * A ready queue of one MLQ level, holding the ids of the processes waiting for the CPU.
+ * The process with the highest priority leaves first, and processes with the same
+ * priority leave in the order they were added (FIFO). The priority is the ordering key
+ * chosen by the level's {@link Policy}: the internal priority for RR, or a negated
+ * (burst or remaining) time for SJF and SRTF, so the shortest job has the highest value.
+ * Every implementation follows the order of {@link SchedulerMLQ#orderingKey(long)},
+ * so they are interchangeable without changing any result.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+public interface ReadyQueue
+{
+    /**
+     * Adds a process to the queue.
+     *
+     * @param id       The process id.
+     * @param priority The ordering priority of the process (higher leaves first).
+     */
+    void add(int id, long priority);
+
+    /**
+     * Gets the next process to run without removing it.
+     *
+     * @return The id of the next process, or -1 if the queue is empty.
+     */
+    int peek();
+
+    /**
+     * Removes and returns the next process to run.
+     *
+     * @return The id of the next process, or -1 if the queue is empty.
+     */
+    int poll();
+
+    /**
+     * Removes every process from the queue, keeping its storage for reuse.
+     */
+    void clear();
+
+    /**
+     * Checks if the queue is empty.
+     *
+     * @return true if there are no processes waiting, false otherwise.
+     */
+    boolean isEmpty();
+
+    /**
+     * Gets the number of processes waiting in the queue.
+     *
+     * @return The queue size.
+     */
+    int size();
+}
@@ -0,0 +1,17 @@
+/**
+ * Receives every process as soon as it finishes, in the streaming mode of {@link SchedulerMLQ}.
+ * The row is released right after the call, so the sink must copy what it needs.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+public interface ResultSink
+{
+    /**
+     * Called once per process, right after its metrics are calculated.
+     *
+     * @param table The table holding the finished process.
+     * @param id    The id of the finished process.
+     */
+    void accept(ProcessTable table, int id);
+}
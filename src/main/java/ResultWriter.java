@@ -0,0 +1,278 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes an output file of the simulator ("salida_" file) without a format call per process.
+ * Every result row is encoded straight into a reusable byte buffer, digit by digit, and
+ * the buffer is written through a {@link FileChannel} when it fills up. The bytes are the
+ * same the {@code PrintWriter} version produced: the same header, the same
+ * {@code label;BT;AT;Q;Pr;WT;CT;RT;TAT} rows and the same {@code WT=%.1f;} averages line.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+public class ResultWriter implements Closeable
+{
+    /** Size of the byte buffer. */
+    private static final int BUFFER_SIZE = 1 << 16;
+    /** Longest row without its label: eight fields of at most 20 characters, their separators and the line break. */
+    private static final int MAX_NUMBERS = 8 * 21 + 1;
+
+    /** Channel of the output file. */
+    private final FileChannel channel;
+    /** Bytes waiting to be written. */
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    /** View of {@link #buf} handed to the channel. */
+    private final ByteBuffer view = ByteBuffer.wrap(buf);
+    /** Number of bytes used in {@link #buf}. */
+    private int size = 0;
+    /** Charset of the text that is not plain ASCII (the platform default, as PrintWriter). */
+    private final Charset charset = Charset.defaultCharset();
+
+    /**
+     * Creates (or truncates) an output file.
+     *
+     * @param outputFile The name (or path) of the output file.
+     * @throws IOException If the file cannot be created.
+     */
+    public ResultWriter(String outputFile) throws IOException
+    {
+        this.channel = FileChannel.open(Paths.get(outputFile), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Writes the two header lines: the input file and the column names.
+     *
+     * @param originalFile The name of the input file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void writeHeader(String originalFile) throws IOException
+    {
+        writeText("# archivo: " + originalFile + System.lineSeparator());
+        writeText("# label; BT; AT; Q; Pr; WT; CT; RT; TAT" + System.lineSeparator());
+    }
+
+    /**
+     * Writes the result row of a process.
+     *
+     * @param p The finished process.
+     * @throws IOException If the file cannot be written.
+     */
+    public void writeRow(Process p) throws IOException
+    {
+        writeRow(p.label, p.burstTime, p.arrivalTime, p.queueId, p.priority,
+                p.waitingTime, p.completionTime, p.responseTime, p.turnAroundTime);
+    }
+
+    /**
+     * Writes the result row of a process stored in a table.
+     *
+     * @param table The table.
+     * @param id    The id of the finished process.
+     * @throws IOException If the file cannot be written.
+     */
+    public void writeRow(ProcessTable table, int id) throws IOException
+    {
+        writeRow(table.label[id], table.burstTime[id], table.arrivalTime[id], table.queueId[id],
+                table.priority[id], table.waitingTime[id], table.completionTime[id],
+                table.responseTime[id], table.turnAroundTime[id]);
+    }
+
+    /**
+     * Writes a result row: the label and the eight numbers separated by ';'.
+     *
+     * @param label          The label of the process.
+     * @param burstTime      The Burst Time.
+     * @param arrivalTime    The Arrival Time.
+     * @param queueId        The queue.
+     * @param priority       The priority.
+     * @param waitingTime    The Waiting Time.
+     * @param completionTime The Completion Time.
+     * @param responseTime   The Response Time.
+     * @param turnAroundTime The TurnAround Time.
+     * @throws IOException If the file cannot be written.
+     */
+    private void writeRow(String label, long burstTime, long arrivalTime, int queueId, int priority,
+                          long waitingTime, long completionTime, long responseTime, long turnAroundTime)
+            throws IOException
+    {
+        writeLabel(label);
+        if (BUFFER_SIZE - size < MAX_NUMBERS)
+        {
+            flush();
+        }
+        putField(burstTime);
+        putField(arrivalTime);
+        putField(queueId);
+        putField(priority);
+        putField(waitingTime);
+        putField(completionTime);
+        putField(responseTime);
+        putField(turnAroundTime);
+        buf[size++] = '\n';
+    }
+
+    /**
+     * Writes the line with the averages, with one decimal: {@code WT=6.2; CT=15.8; ...}.
+     *
+     * @param waitingTime    The average Waiting Time.
+     * @param completionTime The average Completion Time.
+     * @param responseTime   The average Response Time.
+     * @param turnAroundTime The average TurnAround Time.
+     * @throws IOException If the file cannot be written.
+     */
+    public void writeAverages(double waitingTime, double completionTime, double responseTime,
+                              double turnAroundTime) throws IOException
+    {
+        // Once per file, so the usual formatting (and its rounding) is kept
+        writeText(String.format("WT=%.1f; CT=%.1f; RT=%.1f; TAT=%.1f;\n",
+                waitingTime, completionTime, responseTime, turnAroundTime));
+    }
+
+    /**
+     * Writes the line with the utilization of every CPU: {@code CPU1=75.0%; CPU2=62.5%;}.
+     *
+     * @param utilization The utilization of each CPU, between 0 and 1.
+     * @throws IOException If the file cannot be written.
+     */
+    public void writeUtilization(double[] utilization) throws IOException
+    {
+        StringBuilder line = new StringBuilder();
+        for (int cpu = 0; cpu < utilization.length; cpu++)
+        {
+            line.append(String.format(cpu == 0 ? "CPU%d=%.1f%%;" : " CPU%d=%.1f%%;",
+                    cpu + 1, utilization[cpu] * 100));
+        }
+        writeText(line.append('\n').toString());
+    }
+
+    /**
+     * Writes the bytes still in the buffer and closes the file.
+     *
+     * @throws IOException If the file cannot be written or closed.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            flush();
+        }
+        finally
+        {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes a label. Plain ASCII labels (the usual case) are copied char by char;
+     * any other label is encoded with the charset.
+     *
+     * @param label The label.
+     * @throws IOException If the file cannot be written.
+     */
+    private void writeLabel(String label) throws IOException
+    {
+        int length = label.length();
+        if (length <= BUFFER_SIZE)
+        {
+            if (BUFFER_SIZE - size < length)
+            {
+                flush();
+            }
+            for (int i = 0; i < length; i++)
+            {
+                char c = label.charAt(i);
+                if (c >= 0x80)
+                {
+                    writeText(label);
+                    return;
+                }
+                buf[size + i] = (byte) c;
+            }
+            size += length;
+            return;
+        }
+        writeText(label);
+    }
+
+    /**
+     * Writes a piece of text encoded with the charset.
+     *
+     * @param text The text.
+     * @throws IOException If the file cannot be written.
+     */
+    private void writeText(String text) throws IOException
+    {
+        byte[] bytes = text.getBytes(charset);
+        if (bytes.length > BUFFER_SIZE - size)
+        {
+            flush();
+        }
+        if (bytes.length > BUFFER_SIZE)
+        {
+            ByteBuffer large = ByteBuffer.wrap(bytes);
+            while (large.hasRemaining())
+            {
+                channel.write(large);
+            }
+            return;
+        }
+        System.arraycopy(bytes, 0, buf, size, bytes.length);
+        size += bytes.length;
+    }
+
+    /**
+     * Appends ';' and the decimal digits of a number. The digits are written from the
+     * last one backwards, once the length of the number is known.
+     *
+     * @param value The number.
+     */
+    private void putField(long value)
+    {
+        buf[size++] = ';';
+        // Digits are taken from the negative value, so Long.MIN_VALUE needs no special case
+        long v = value;
+        if (v < 0)
+        {
+            buf[size++] = '-';
+        }
+        else
+        {
+            v = -v;
+        }
+        int digits = 1;
+        for (long rest = v / 10; rest != 0; rest /= 10)
+        {
+            digits++;
+        }
+        int end = size + digits;
+        for (int i = end - 1; i >= size; i--)
+        {
+            buf[i] = (byte) ('0' - v % 10);
+            v /= 10;
+        }
+        size = end;
+    }
+
+    /**
+     * Writes the content of the buffer to the file and empties it.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    private void flush() throws IOException
+    {
+        view.clear().limit(size);
+        while (view.hasRemaining())
+        {
+            channel.write(view);
+        }
+        size = 0;
+    }
+}
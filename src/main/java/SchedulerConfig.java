@@ -0,0 +1,296 @@
+import java.util.Arrays;
+
+/**
+ * Queue topology of the MLQ simulator: how many levels there are and the scheduling
+ * policy and time quantum of each one. Level 1 has priority over level 2, level 2 over
+ * level 3, and so on. With feedback (MLFQ, see {@link #withFeedback(int)}) processes also
+ * move between levels, and with overhead ({@link #withOverhead(int, int)}) every context
+ * switch costs CPU time. Instances are immutable, so one configuration can be shared by
+ * many simulators.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+public class SchedulerConfig
+{
+    /** Largest number of levels supported (one bit each in the scheduler's level bitmap). */
+    public static final int MAX_LEVELS = Long.SIZE;
+
+    /** Scheduling policy of each level. */
+    private final Policy[] policies;
+    /** Time quantum of each level. */
+    private final int[] quantum;
+    /** Whether processes move between levels (MLFQ) instead of staying in their queueId. */
+    private final boolean feedback;
+    /** Time between two priority boosts in MLFQ mode ({@code Integer.MAX_VALUE} for none). */
+    private final int boostInterval;
+    /** Whether context switches and preemptions are charged to the clock and counted. */
+    private final boolean overhead;
+    /** Time charged for every context switch. */
+    private final int switchCost;
+    /** Extra time charged when the running process is preempted. */
+    private final int preemptionCost;
+
+    /**
+     * Creates a configuration with one entry per level, naming the policies ("RR", "SJF", "SRTF").
+     *
+     * @param policies The name of the scheduling policy of each level, starting with level 1.
+     * @param quantum  The time quantum of each level ({@code Integer.MAX_VALUE} for none).
+     * @throws IllegalArgumentException If a policy name is unknown, or as in
+     *                                  {@link #SchedulerConfig(Policy[], int[])}.
+     */
+    public SchedulerConfig(String[] policies, int[] quantum)
+    {
+        this(parsePolicies(policies), quantum);
+    }
+
+    /**
+     * Creates a configuration with one entry per level.
+     *
+     * @param policies The scheduling policy of each level, starting with level 1.
+     * @param quantum  The time quantum of each level ({@code Integer.MAX_VALUE} for none).
+     * @throws IllegalArgumentException If the arrays differ in length, there are no levels or
+     *                                  more than {@link #MAX_LEVELS}, or a quantum is not positive.
+     */
+    public SchedulerConfig(Policy[] policies, int[] quantum)
+    {
+        this(policies, quantum, false, Integer.MAX_VALUE, false, 0, 0);
+    }
+
+    /**
+     * Creates a configuration with one entry per level and the given feedback and overhead settings.
+     *
+     * @param policies       The scheduling policy of each level, starting with level 1.
+     * @param quantum        The time quantum of each level ({@code Integer.MAX_VALUE} for none).
+     * @param feedback       Whether processes move between levels.
+     * @param boostInterval  The time between two priority boosts ({@code Integer.MAX_VALUE} for none).
+     * @param overhead       Whether context switches are charged and counted.
+     * @param switchCost     The time charged for every context switch.
+     * @param preemptionCost The extra time charged for every preemption.
+     * @throws IllegalArgumentException As in {@link #SchedulerConfig(Policy[], int[])}, if the
+     *                                  boost interval is not positive or if a cost is negative.
+     */
+    private SchedulerConfig(Policy[] policies, int[] quantum, boolean feedback, int boostInterval,
+                            boolean overhead, int switchCost, int preemptionCost)
+    {
+        if (policies.length != quantum.length)
+        {
+            throw new IllegalArgumentException("Debe haber una politica y un quantum por nivel");
+        }
+        if (policies.length == 0 || policies.length > MAX_LEVELS)
+        {
+            throw new IllegalArgumentException("Numero de niveles no soportado: " + policies.length);
+        }
+        for (int q : quantum)
+        {
+            if (q <= 0)
+            {
+                throw new IllegalArgumentException("El quantum debe ser positivo: " + q);
+            }
+        }
+        if (boostInterval <= 0)
+        {
+            throw new IllegalArgumentException("El intervalo de boost debe ser positivo: " + boostInterval);
+        }
+        if (switchCost < 0 || preemptionCost < 0)
+        {
+            throw new IllegalArgumentException("El coste de un cambio de contexto no puede ser negativo");
+        }
+        this.policies = policies.clone();
+        this.quantum = quantum.clone();
+        this.feedback = feedback;
+        this.boostInterval = boostInterval;
+        this.overhead = overhead;
+        this.switchCost = switchCost;
+        this.preemptionCost = preemptionCost;
+    }
+
+    /**
+     * Gets a copy of this configuration in multilevel feedback queue (MLFQ) mode.
+     * A process starts in the level of its queueId; every time it uses up its whole
+     * quantum it is demoted one level (down to the last one), and every
+     * {@code boostInterval} time units all processes go back to level 1, so long jobs
+     * pushed to the bottom do not starve.
+     *
+     * @param boostInterval The time between two priority boosts ({@code Integer.MAX_VALUE} for none).
+     * @return The MLFQ configuration.
+     * @throws IllegalArgumentException If the boost interval is not positive.
+     */
+    public SchedulerConfig withFeedback(int boostInterval)
+    {
+        return new SchedulerConfig(policies, quantum, true, boostInterval, overhead, switchCost, preemptionCost);
+    }
+
+    /**
+     * Gets a copy of this configuration where scheduling is not free.
+     * Every context switch (dispatching a process other than the last one that ran)
+     * keeps the CPU busy for {@code switchCost} time units before the process runs, and a
+     * dispatch that follows a preemption adds {@code preemptionCost} to save the state of
+     * the preempted process. The CPU can still be preempted during that time; the
+     * quantum only starts once the process runs. The simulator also counts, per level,
+     * the switches, preemptions and quantum expiries (even with both costs at 0).
+     *
+     * @param switchCost     The time charged for every context switch.
+     * @param preemptionCost The extra time charged for every preemption.
+     * @return The configuration with overhead.
+     * @throws IllegalArgumentException If a cost is negative.
+     */
+    public SchedulerConfig withOverhead(int switchCost, int preemptionCost)
+    {
+        return new SchedulerConfig(policies, quantum, feedback, boostInterval, true, switchCost, preemptionCost);
+    }
+
+    /**
+     * Gets the default configuration: 3 levels, RR with quantum 1, RR with quantum 3,
+     * and a third level served by priority without quantum.
+     * The third level used to be labelled "SJF" but has always been served by priority;
+     * the default keeps that behaviour so results do not change. Use {@link Policy#SJF}
+     * for a true shortest-job-first level.
+     *
+     * @return The default configuration.
+     */
+    public static SchedulerConfig defaults()
+    {
+        return new SchedulerConfig(new Policy[]{Policy.RR, Policy.RR, Policy.RR},
+                new int[]{1, 3, Integer.MAX_VALUE});
+    }
+
+    /**
+     * Converts policy names to policies.
+     *
+     * @param names The policy names (case-insensitive).
+     * @return The policies, in the same order.
+     * @throws IllegalArgumentException If a name is unknown.
+     */
+    private static Policy[] parsePolicies(String[] names)
+    {
+        Policy[] parsed = new Policy[names.length];
+        for (int i = 0; i < names.length; i++)
+        {
+            try
+            {
+                parsed[i] = Policy.valueOf(names[i].trim().toUpperCase());
+            }
+            catch (IllegalArgumentException e)
+            {
+                throw new IllegalArgumentException("Politica desconocida: " + names[i]);
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Gets the number of levels.
+     *
+     * @return The number of queues.
+     */
+    public int getLevels()
+    {
+        return policies.length;
+    }
+
+    /**
+     * Gets the scheduling policy of a level.
+     *
+     * @param queueId The level, starting at 1.
+     * @return The policy of that level.
+     */
+    public Policy getPolicy(int queueId)
+    {
+        return policies[queueId - 1];
+    }
+
+    /**
+     * Gets the time quantum of a level.
+     *
+     * @param queueId The level, starting at 1.
+     * @return The quantum of that level ({@code Integer.MAX_VALUE} for none).
+     */
+    public int getQuantum(int queueId)
+    {
+        return quantum[queueId - 1];
+    }
+
+    /**
+     * Gets the longest time a process of a level runs before its quantum expires, on the
+     * {@code long} clock of the simulators: "no quantum" becomes {@code Long.MAX_VALUE},
+     * so bursts longer than {@code Integer.MAX_VALUE} are not sliced.
+     *
+     * @param queueId The level, starting at 1.
+     * @return The quantum of that level ({@code Long.MAX_VALUE} for none).
+     */
+    public long getSliceLimit(int queueId)
+    {
+        int q = quantum[queueId - 1];
+        return q == Integer.MAX_VALUE ? Long.MAX_VALUE : q;
+    }
+
+    /**
+     * Checks if processes move between levels (MLFQ mode).
+     *
+     * @return true in MLFQ mode, false if every process stays in its queueId.
+     */
+    public boolean isFeedback()
+    {
+        return feedback;
+    }
+
+    /**
+     * Gets the time between two priority boosts in MLFQ mode.
+     *
+     * @return The boost interval ({@code Integer.MAX_VALUE} for none).
+     */
+    public int getBoostInterval()
+    {
+        return boostInterval;
+    }
+
+    /**
+     * Gets the time between two priority boosts on the {@code long} clock of the
+     * simulators: "no boost" becomes {@code Long.MAX_VALUE}, so it never comes.
+     *
+     * @return The boost interval ({@code Long.MAX_VALUE} for none).
+     */
+    public long getBoostPeriod()
+    {
+        return boostInterval == Integer.MAX_VALUE ? Long.MAX_VALUE : boostInterval;
+    }
+
+    /**
+     * Checks if context switches are charged to the clock and counted.
+     *
+     * @return true if the configuration was made with {@link #withOverhead(int, int)}.
+     */
+    public boolean hasOverhead()
+    {
+        return overhead;
+    }
+
+    /**
+     * Gets the time charged for every context switch.
+     *
+     * @return The switch cost (0 without overhead).
+     */
+    public int getSwitchCost()
+    {
+        return switchCost;
+    }
+
+    /**
+     * Gets the extra time charged for every preemption.
+     *
+     * @return The preemption cost (0 without overhead).
+     */
+    public int getPreemptionCost()
+    {
+        return preemptionCost;
+    }
+
+    @Override
+    public String toString()
+    {
+        String levels = "policies=" + Arrays.toString(policies) + " quantum=" + Arrays.toString(quantum);
+        levels = feedback ? levels + " mlfq boost=" + boostInterval : levels;
+        return overhead ? levels + " overhead switch=" + switchCost + " preemption=" + preemptionCost : levels;
+    }
+}
@@ -1,44 +1,104 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.PriorityQueue;
+import java.util.Arrays;
 import java.util.Comparator;
 
 /**
  * Implements the Multilevel Queue (MLQ) scheduling algorithm simulator.
  * It manages the simulation clock, the ready queues, and the dispatching of processes.
- * This implementation uses 3 queues with preemption between them (Q1 has priority
- * over Q2, and Q2 over Q3).
+ * The queue topology comes from a {@link SchedulerConfig} (by default 3 queues) with
+ * preemption between them (Q1 has priority over Q2, Q2 over Q3, and so on).
+ * In MLFQ mode ({@link SchedulerConfig#withFeedback(int)}) a process that uses up its
+ * quantum is demoted one level and periodic boosts bring every process back to level 1.
+ * In streaming mode ({@link #SchedulerMLQ(ProcessSource, ResultSink)}) processes are
+ * pulled lazily from a {@link ProcessSource} and handed to a {@link ResultSink} as soon
+ * as they finish, so memory is bounded by the number of live processes.
  *
  * @author Santiago Duque
  * @version 1.0
  */
 public class SchedulerMLQ
 {
-    /** Master list with all processes read from the file. */
-    private List<Process> allProcesses;
+    /** Id used for {@link #ProcessInCPU} when the CPU is idle. */
+    private static final int IDLE = -1;
 
-    /** List to store processes as they finish execution. */
-    private List<Process> finishedProcesses;
+    /** Column storage with all processes read from the file, addressed by process id. */
+    private ProcessTable table;
 
-    /** Priority Queue for Level 1. */
-    private PriorityQueue<Process> queue1;
-    /** Priority Queue for Level 2. */
-    private PriorityQueue<Process> queue2;
-    /** Priority Queue for Level 3. */
-    private PriorityQueue<Process> queue3;
+    /** Ids of the processes in the order they finished execution (not kept in streaming mode). */
+    private int[] finishedProcesses;
+    /** Number of processes that have finished so far. */
+    private int finishedCount = 0;
+    /** Number of processes that have been admitted to the ready queues so far. */
+    private int admittedCount = 0;
+    /** Running totals of the metrics of the finished processes. */
+    private MetricsSummary summary = new MetricsSummary();
+
+    /** Lazy source of processes in streaming mode (null otherwise). */
+    private ProcessSource source;
+    /** Receiver of the finished processes in streaming mode (null otherwise). */
+    private ResultSink sink;
+    /** Id of the next process pulled from {@link #source} that has not arrived yet ({@link #IDLE} if none). */
+    private int pendingArrival = IDLE;
+
+    /** All process ids sorted by arrival time (stable, so input order breaks ties). */
+    private int[] arrivalOrder;
+    /** Index in {@link #arrivalOrder} of the next process that has not arrived yet. */
+    private int arrivalCursor = 0;
+
+    /** Priority Queue of each level ({@code queues[0]} is Level 1). */
+    private ReadyQueue[] queues;
+    /** Bit {@code i} is set when {@code queues[i]} has at least one process. */
+    private long nonEmptyLevels = 0;
 
     /** Global simulation clock. Advances tick by tick. */
-    private int actualTime = 0;
-    /** The process currently running on the CPU (null if idle). */
-    private Process ProcessInCPU = null;
+    private long actualTime = 0;
+    /** Id of the process currently running on the CPU ({@link #IDLE} if idle). */
+    private int ProcessInCPU = IDLE;
 
 
-    /** Scheduling policies for each queue ("RR", "SJF"). */
-    private String[] policies = {"RR", "RR", "SJF"};
-    /** Time quantum for each queue (1, 3, Infinity). */
-    private int[] quantum = {1, 3, Integer.MAX_VALUE};
+    /** Queue topology: scheduling policy and time quantum of each level. */
+    private SchedulerConfig config;
     /** Remaining quantum for the current process on the CPU (relevant for RR). */
-    private int remainingQuantum = 0;
+    private long remainingQuantum = 0;
+    /** Time of the next priority boost in MLFQ mode. */
+    private long nextBoost;
+
+    /** Context-switch time still to pass before the process on the CPU runs. */
+    private long pendingOverhead = 0;
+    /** Id of the last process dispatched, so dispatching it again is not a context switch. */
+    private int lastDispatched = IDLE;
+    /** Whether a process was preempted since the last dispatch (its save cost is still due). */
+    private boolean preemptionDue = false;
+    /** Context switches into a process of each level ({@code [0]} is Level 1). */
+    private long[] switches;
+    /** Preemptions of a running process of each level. */
+    private long[] preemptions;
+    /** Quantum expiries of a running process of each level. */
+    private long[] expiries;
+    /** Total time the CPU spent switching context instead of running processes. */
+    private long overheadTime = 0;
+
+    /** Engine used by {@link #simulate()} to advance the clock. */
+    private Engine engine = Engine.TICK;
+    /** Whether {@link #simulate()} may use a closed form ({@link AnalyticSchedule}) instead of the loop. */
+    private boolean analyticFastPath = true;
+    /** Whether a closed-form schedule is checked against a full simulation. */
+    private boolean shadowVerification = false;
+
+    /**
+     * Simulation engines available to {@link #simulate()}.
+     * Both engines make exactly the same scheduling decisions and produce the same results.
+     */
+    public enum Engine
+    {
+        /** Advances the clock one time unit per iteration (reference engine). */
+        TICK,
+        /** Jumps the clock straight to the next event: an arrival, a quantum expiry or a completion. */
+        EVENT
+    }
 
     /**
      * Constructor for the MLQ Simulator.
@@ -47,112 +107,641 @@ public class SchedulerMLQ
      */
     public SchedulerMLQ(List<Process> processes)
     {
-        this.allProcesses = processes;
-        this.finishedProcesses = new ArrayList<>();
+        this(ProcessTable.fromList(processes));
+    }
+
+    /**
+     * Constructor for the MLQ Simulator working directly on column storage.
+     *
+     * @param table The table with all processes loaded from the file.
+     */
+    public SchedulerMLQ(ProcessTable table)
+    {
+        this(table, SchedulerConfig.defaults());
+    }
+
+    /**
+     * Constructor for the MLQ Simulator with a custom queue topology.
+     *
+     * @param table  The table with all processes loaded from the file.
+     * @param config The levels with their policies and quanta.
+     */
+    public SchedulerMLQ(ProcessTable table, SchedulerConfig config)
+    {
+        this(table, config, sortByArrival(table));
+    }
+
+    /**
+     * Constructor for the MLQ Simulator with the arrival order already computed, so
+     * simulations of the same processes can share it.
+     *
+     * @param table        The table with all processes loaded from the file.
+     * @param config       The levels with their policies and quanta.
+     * @param arrivalOrder The ids of the table sorted by {@link #sortByArrival(ProcessTable)}
+     *                     (only read).
+     */
+    SchedulerMLQ(ProcessTable table, SchedulerConfig config, int[] arrivalOrder)
+    {
+        this.table = table;
+        this.config = config;
+        this.nextBoost = config.getBoostPeriod();
+        this.finishedProcesses = new int[table.size()];
+        this.arrivalOrder = arrivalOrder;
+
+        this.queues = createQueues();
+        this.switches = new long[queues.length];
+        this.preemptions = new long[queues.length];
+        this.expiries = new long[queues.length];
+    }
+
+    /**
+     * Sorts the ids of a table by arrival time, keeping the input order for equal arrivals.
+     *
+     * @param table The table of processes.
+     * @return All the ids of the table, sorted by arrival time.
+     */
+    static int[] sortByArrival(ProcessTable table)
+    {
+        return sortStable(Arrays.copyOf(table.arrivalTime, table.size()));
+    }
+
+    /**
+     * Sorts the indexes of an array by their values, keeping the index order for equal
+     * values. When the values span less than the bits the indexes leave free, each value
+     * is packed with its index into one key and the keys are sorted as primitives;
+     * otherwise (times that span centuries) the indexes go through a heap.
+     *
+     * @param values The values.
+     * @return The indexes of {@code values}, sorted by value.
+     */
+    static int[] sortStable(long[] values)
+    {
+        int n = values.length;
+        int[] order = new int[n];
+        if (n == 0)
+        {
+            return order;
+        }
+        long min = values[0];
+        long max = values[0];
+        for (long value : values)
+        {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        int indexBits = 32 - Integer.numberOfLeadingZeros(n - 1);
+        long range = max - min;
+        if (range >= 0 && range < 1L << (63 - indexBits))
+        {
+            // Offset value in the high bits and index in the low bits
+            long[] keys = new long[n];
+            for (int i = 0; i < n; i++)
+            {
+                keys[i] = (values[i] - min) << indexBits | i;
+            }
+            Arrays.sort(keys);
+            long mask = (1L << indexBits) - 1;
+            for (int i = 0; i < n; i++)
+            {
+                order[i] = (int) (keys[i] & mask);
+            }
+            return order;
+        }
+
+        IndexedIntHeap heap = new IndexedIntHeap(n);
+        for (int i = 0; i < n; i++)
+        {
+            heap.add(i, values[i], i);
+        }
+        for (int i = 0; i < n; i++)
+        {
+            order[i] = heap.poll();
+        }
+        return order;
+    }
+
+    /**
+     * Gets the sort key that decides the order in which waiting processes leave a ready
+     * queue; the smallest key leaves first. The order is, in this sequence:
+     * 1. The ordering priority of the level's {@link Policy}, highest first. The key is
+     *    {@code ~priority}, which reverses the order without the overflow of
+     *    {@code -priority} at {@code Long.MIN_VALUE}.
+     * 2. The enqueue sequence: processes with the same priority leave in the order they
+     *    were added to the queue (FIFO). It is a 64-bit counter kept next to the key
+     *    (the tie-break key of {@link IndexedIntHeap}), since with 64-bit times a burst
+     *    or remaining time leaves no room for it in the same {@code long}.
+     * 3. The input index, which needs no storage: sequence numbers are unique within a
+     *    queue, and processes admitted at the same instant are enqueued in input order
+     *    ({@link #sortByArrival(ProcessTable)}), so the sequence already follows it.
+     * Every ready queue and engine orders processes this way, so they all make the same
+     * choice among equal priorities and give bit-identical results.
+     *
+     * @param priority The ordering priority (higher leaves first).
+     * @return The sort key.
+     */
+    static long orderingKey(long priority)
+    {
+        return ~priority;
+    }
+
+    /**
+     * Constructor for the MLQ Simulator in streaming mode.
+     * Processes are pulled from the source only when the clock reaches their arrival time,
+     * and each finished process is handed to the sink and its row released. The source
+     * must deliver the processes in non-decreasing order of arrival time.
+     * {@link #getResults()} is empty in this mode; use {@link #getSummary()} for the averages.
+     *
+     * @param source The lazy source of processes.
+     * @param sink   The receiver of the finished processes.
+     */
+    public SchedulerMLQ(ProcessSource source, ResultSink sink)
+    {
+        this(source, sink, SchedulerConfig.defaults());
+    }
+
+    /**
+     * Constructor for the MLQ Simulator in streaming mode with a custom queue topology.
+     *
+     * @param source The lazy source of processes.
+     * @param sink   The receiver of the finished processes.
+     * @param config The levels with their policies and quanta.
+     */
+    public SchedulerMLQ(ProcessSource source, ResultSink sink, SchedulerConfig config)
+    {
+        this.table = new ProcessTable();
+        this.config = config;
+        this.nextBoost = config.getBoostPeriod();
+        this.finishedProcesses = new int[0];
+        this.arrivalOrder = new int[0];
+        this.source = source;
+        this.sink = sink;
+
+        this.queues = createQueues();
+        this.switches = new long[queues.length];
+        this.preemptions = new long[queues.length];
+        this.expiries = new long[queues.length];
+
+        this.pendingArrival = pullNextProcess();
+    }
+
+    /**
+     * Prepares the simulator to run the same processes again, as if it had just been built.
+     * Every process is restored from its input attributes ({@link ProcessTable#reset()}),
+     * and the queues, the arrival cursor, the clock and the {@link #getSummary()} totals
+     * are cleared in place. No storage is allocated, so once the queues have grown to
+     * their working size a reset followed by {@link #simulate()} allocates nothing when
+     * the simulation loop runs. Only when the analytic fast path takes the input does
+     * simulate() allocate, the O(n) scratch arrays of the closed form; whether it applies
+     * is checked first without allocating (see {@link #setAnalyticFastPath(boolean)}).
+     * The engine and the configuration are kept.
+     *
+     * @throws IllegalStateException In streaming mode, where the processes are not kept.
+     */
+    public void reset()
+    {
+        if (source != null)
+        {
+            throw new IllegalStateException("No se puede reiniciar una simulacion en modo streaming");
+        }
+        table.reset();
+        for (ReadyQueue queue : queues)
+        {
+            queue.clear();
+        }
+        nonEmptyLevels = 0;
+        summary.clear();
+        finishedCount = 0;
+        admittedCount = 0;
+        arrivalCursor = 0;
+        actualTime = 0;
+        ProcessInCPU = IDLE;
+        remainingQuantum = 0;
+        nextBoost = config.getBoostPeriod();
+        pendingOverhead = 0;
+        lastDispatched = IDLE;
+        preemptionDue = false;
+        Arrays.fill(switches, 0);
+        Arrays.fill(preemptions, 0);
+        Arrays.fill(expiries, 0);
+        overheadTime = 0;
+    }
+
+    /**
+     * Selects the engine used by {@link #simulate()}.
+     *
+     * @param engine The engine to use ({@link Engine#TICK} by default).
+     */
+    public void setEngine(Engine engine)
+    {
+        this.engine = engine;
+    }
 
-        Comparator<Process> comparePriority = (p1, p2) -> p2.getPriority() - p1.getPriority();
+    /**
+     * Enables or disables the analytic fast path: when every process arrives at the same
+     * instant, or all of them are in one level that never slices them, {@link #simulate()}
+     * computes the schedule in closed form ({@link AnalyticSchedule}) without running
+     * the loop. It is enabled by default and never used in streaming mode.
+     *
+     * @param analyticFastPath true to allow the closed form, false to always run the loop.
+     */
+    public void setAnalyticFastPath(boolean analyticFastPath)
+    {
+        this.analyticFastPath = analyticFastPath;
+    }
 
-        this.queue1 = new PriorityQueue<>(comparePriority);
-        this.queue2 = new PriorityQueue<>(comparePriority);
-        this.queue3 = new PriorityQueue<>(comparePriority);
+    /**
+     * Enables or disables the shadow verification of the analytic fast path: every
+     * closed-form schedule is also simulated by the loop with the selected engine, on a
+     * copy of the processes, and the metrics of every process are compared.
+     *
+     * @param shadowVerification true to cross-check the closed form, false otherwise.
+     */
+    public void setShadowVerification(boolean shadowVerification)
+    {
+        this.shadowVerification = shadowVerification;
     }
 
     /**
-     * Runs the main simulation loop.
+     * Runs the simulation with the selected {@link Engine}.
      * It continues until all processes from the master list have finished.
-     * The loop advances the {@code currentTime} tick by tick and follows 6 steps:
-     * 1. ARRIVALS: Moves processes from the master list to the ready queues if {@code arrivalTime == currentTime}.
-     * 2. PREEMPTION: Checks if a higher-priority process should preempt the one on the CPU.
+     * Every iteration of the loop follows 6 steps:
+     * 1. ARRIVALS: Moves processes whose {@code arrivalTime} has been reached to the ready queues
+     *    (and, in MLFQ mode, boosts every process to level 1 when a boost is due).
+     * 2. PREEMPTION: Checks if a higher-priority process (or a shorter one, in an SRTF level)
+     *    should preempt the one on the CPU.
      * 3. DISPATCH: If the CPU is idle, dispatches the best available process.
-     * 4. EXECUTION: Executes one tick of the process on the CPU.
+     * 4. EXECUTION: Runs a slice of the process on the CPU ({@link #runSlice(long)}): one tick
+     *    with {@link Engine#TICK}, or up to the next event with {@link Engine#EVENT}.
      * 5. REVIEW: Checks if the CPU process has finished or its quantum expired.
-     * 6. ADVANCE: Increments the {@code currentTime}.
+     * 6. ADVANCE: If the CPU is idle, moves the clock one tick ({@link Engine#TICK}) or
+     *    straight to the next arrival ({@link Engine#EVENT}).
+     * With {@link Engine#EVENT} the cost is proportional to the number of events, not to
+     * the total simulated time: a long RR quantum or a level without quantum costs O(1)
+     * per slice.
+     * Degenerate inputs skip the loop and are scheduled in closed form (see
+     * {@link #setAnalyticFastPath(boolean)}).
+     *
+     * @throws UncheckedIOException  In streaming mode, if the source cannot be read.
+     * @throws IllegalStateException If shadow verification is on and the closed form does
+     *                               not match the full simulation.
      */
     public void simulate()
     {
-        while (finishedProcesses.size() < allProcesses.size())
+        if (analyticFastPath && source == null && admittedCount == 0 && simulateAnalytically())
         {
+            return;
+        }
 
+        while (hasWork())
+        {
             // 1. Move processes from the total list to queues if they have arrived
-            for (int i = 0; i < allProcesses.size(); i++)
-            {
-                Process p = allProcesses.get(i);
-                if (p.getArrivalTime() == actualTime && !finishedProcesses.contains(p))
-                {
-                    switch (p.queueId)
-                    {
-                        case 1: queue1.add(p); break;
-                        case 2: queue2.add(p); break;
-                        case 3: queue3.add(p); break;
-                    }
-                }
-            }
+            admitArrivals();
+            boostIfDue();
 
             // 2. Preemption Logic
-            Process bestQueuingProcess = getBetterProcess();
-            if (ProcessInCPU != null && bestQueuingProcess != null)
+            int bestQueuingProcess = getBetterProcess();
+            if (ProcessInCPU != IDLE && bestQueuingProcess != IDLE)
             {
-                if (bestQueuingProcess.queueId < ProcessInCPU.queueId)
+                if (shouldPreempt(bestQueuingProcess))
                 {
+                    preemptions[table.level[ProcessInCPU] - 1]++;
+                    preemptionDue = true;
                     returnProcessToQueue(ProcessInCPU);
-                    ProcessInCPU = null;
+                    ProcessInCPU = IDLE;
                 }
             }
 
             // 3. If CPU is idle, dispatch the best process
-            if (ProcessInCPU == null) 
+            if (ProcessInCPU == IDLE)
             {
-                Process processToBeDispatched = getBetterProcess();
-                if (processToBeDispatched != null)
+                int processToBeDispatched = getBetterProcess();
+                if (processToBeDispatched != IDLE)
                 {
                     dispatch(processToBeDispatched);
                 }
             }
 
-            // 4. Execute one "tick" of the clock
-            if (ProcessInCPU != null) 
+            // 4. and 5. Execute a slice and review the process
+            if (ProcessInCPU != IDLE)
             {
+                runSlice(engine == Engine.EVENT ? sliceLength() : 1);
+            }
+            else if (engine == Engine.TICK)
+            {
+                // 6. CPU idle: one tick passes
+                actualTime++;
+            }
+            else if (getNextArrivalTime() != Long.MAX_VALUE)
+            {
+                // 6. CPU idle: jump straight to the next arrival
+                actualTime = getNextArrivalTime();
+            }
+            else
+            {
+                // Nothing running and nothing left to arrive
+                break;
+            }
+        }
+    }
 
-                if (ProcessInCPU.isFirstTime) 
-                {
-                    ProcessInCPU.responseTime = actualTime - ProcessInCPU.arrivalTime;
-                    ProcessInCPU.isFirstTime = false;
-                }
+    /**
+     * Schedules every process in closed form, if {@link AnalyticSchedule} recognises the
+     * input, and finishes them in completion order as the loop would.
+     *
+     * @return true if the processes were scheduled, false if the loop must run.
+     */
+    private boolean simulateAnalytically()
+    {
+        if (!AnalyticSchedule.applies(table, config))
+        {
+            // Checked before allocating, so the loop path stays allocation-free
+            return false;
+        }
+        int n = table.size();
+        long[] firstStart = new long[n];
+        long[] completion = new long[n];
+        if (!AnalyticSchedule.schedule(table, config, arrivalOrder, firstStart, completion))
+        {
+            return false;
+        }
 
-                ProcessInCPU.runTick();
-                remainingQuantum--;
+        int[] finishOrder = sortStable(completion);
+        for (int id : finishOrder)
+        {
+            table.level[id] = table.queueId[id];
+            table.responseTime[id] = firstStart[id] - table.arrivalTime[id];
+            table.started[id] = true;
+            table.remainingBurstTime[id] = 0;
+            admittedCount++;
+            finish(id, completion[id]);
+        }
+        arrivalCursor = arrivalOrder.length;
+        actualTime = n > 0 ? completion[finishOrder[n - 1]] : actualTime;
 
-                // 5. Check if the process finished or its quantum expired
-                if (ProcessInCPU.itsOver())
-                {
-                    //That "+ 1" is because it ends at the end of the tick
-                    ProcessInCPU.calculateMetrics(actualTime + 1);
-                    finishedProcesses.add(ProcessInCPU);
-                    ProcessInCPU = null;
-                }
-                else if (remainingQuantum == 0)
-                {
-                    returnProcessToQueue(ProcessInCPU);
-                    ProcessInCPU = null;
-                }
+        if (shadowVerification)
+        {
+            verifyAgainstLoop();
+        }
+        return true;
+    }
+
+    /**
+     * Simulates the same processes with the loop, on a copy, and compares the metrics of
+     * every process with the closed-form ones.
+     *
+     * @throws IllegalStateException If a metric differs.
+     */
+    private void verifyAgainstLoop()
+    {
+        SchedulerMLQ shadow = new SchedulerMLQ(table.shareInput(), config, arrivalOrder);
+        shadow.setEngine(engine);
+        shadow.setAnalyticFastPath(false);
+        shadow.simulate();
+
+        ProcessTable expected = shadow.table;
+        for (int id = 0; id < table.size(); id++)
+        {
+            if (expected.completionTime[id] != table.completionTime[id]
+                    || expected.responseTime[id] != table.responseTime[id]
+                    || expected.waitingTime[id] != table.waitingTime[id]
+                    || expected.turnAroundTime[id] != table.turnAroundTime[id])
+            {
+                throw new IllegalStateException("La ruta analitica no coincide con la simulacion completa"
+                        + " en el proceso " + table.label[id]);
             }
-            actualTime++;
+        }
+    }
+
+    /**
+     * Gets the length of the next slice of the process on the CPU: until it finishes, its
+     * quantum expires, the next process arrives or, in MLFQ mode, the next boost, whichever
+     * comes first. No scheduling decision can change inside the slice. While a context
+     * switch is pending (see {@link SchedulerConfig#withOverhead(int, int)}) the slice
+     * covers the rest of the switch instead.
+     *
+     * @return The number of time units to run.
+     */
+    private long sliceLength()
+    {
+        long slice;
+        if (pendingOverhead > 0)
+        {
+            slice = pendingOverhead;
+        }
+        else
+        {
+            // A process with nothing left still takes one tick, as in the tick engine
+            slice = Math.max(table.remainingBurstTime[ProcessInCPU], 1);
+            slice = Math.min(slice, remainingQuantum);
+        }
+        long nextArrival = getNextArrivalTime();
+        if (nextArrival != Long.MAX_VALUE)
+        {
+            slice = Math.min(slice, nextArrival - actualTime);
+        }
+        if (config.isFeedback())
+        {
+            slice = Math.min(slice, nextBoost - actualTime);
+        }
+        return slice;
+    }
+
+    /**
+     * Runs the process on the CPU for a slice and advances the clock to its end.
+     * It records the response time on the first slice, then finishes the process if it
+     * has nothing left (its completion time is the end of the slice) or returns it to its
+     * queue if its quantum expired. A slice of a pending context switch only advances
+     * the clock.
+     *
+     * @param slice The number of time units to run (at least 1).
+     */
+    private void runSlice(long slice)
+    {
+        if (pendingOverhead > 0)
+        {
+            // Context switch: the clock advances but the process does not run yet
+            pendingOverhead -= slice;
+            overheadTime += slice;
+            actualTime += slice;
+            return;
+        }
+        if (!table.started[ProcessInCPU])
+        {
+            table.responseTime[ProcessInCPU] = actualTime - table.arrivalTime[ProcessInCPU];
+            table.started[ProcessInCPU] = true;
+        }
+
+        table.runTicks(ProcessInCPU, slice);
+        remainingQuantum -= slice;
+        actualTime += slice;
+
+        // 5. Check if the process finished or its quantum expired
+        if (table.itsOver(ProcessInCPU))
+        {
+            finish(ProcessInCPU, actualTime);
+            ProcessInCPU = IDLE;
+        }
+        else if (remainingQuantum == 0)
+        {
+            expiries[table.level[ProcessInCPU] - 1]++;
+            demote(ProcessInCPU);
+            returnProcessToQueue(ProcessInCPU);
+            ProcessInCPU = IDLE;
+        }
+    }
+
+    /**
+     * Gets the earliest arrival time of the processes that have not arrived yet.
+     *
+     * @return The next arrival time, or {@code Long.MAX_VALUE} if no process arrives later.
+     */
+    private long getNextArrivalTime()
+    {
+        if (source != null)
+        {
+            return pendingArrival == IDLE ? Long.MAX_VALUE : table.arrivalTime[pendingArrival];
+        }
+        if (arrivalCursor < arrivalOrder.length)
+        {
+            return table.arrivalTime[arrivalOrder[arrivalCursor]];
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Moves every process whose arrival time has been reached to its ready queue.
+     * The cursor over {@link #arrivalOrder} only moves forward, so each call costs
+     * O(arrivals admitted) instead of a scan of the master list.
+     */
+    private void admitArrivals()
+    {
+        if (source != null)
+        {
+            while (pendingArrival != IDLE && table.arrivalTime[pendingArrival] <= actualTime)
+            {
+                checkQueue(pendingArrival);
+                table.level[pendingArrival] = table.queueId[pendingArrival];
+                returnProcessToQueue(pendingArrival);
+                admittedCount++;
+                pendingArrival = pullNextProcess();
+            }
+            return;
+        }
+        while (arrivalCursor < arrivalOrder.length
+                && table.arrivalTime[arrivalOrder[arrivalCursor]] <= actualTime)
+        {
+            int id = arrivalOrder[arrivalCursor++];
+            if (!table.finished[id])
+            {
+                checkQueue(id);
+                table.level[id] = table.queueId[id];
+                returnProcessToQueue(id);
+                admittedCount++;
+            }
+        }
+    }
+
+    /**
+     * Checks if there is still work to simulate: admitted processes that have not
+     * finished, or processes that have not arrived yet.
+     *
+     * @return true if the simulation must go on, false otherwise.
+     */
+    private boolean hasWork()
+    {
+        if (finishedCount < admittedCount)
+        {
+            return true;
+        }
+        return source != null ? pendingArrival != IDLE : arrivalCursor < arrivalOrder.length;
+    }
+
+    /**
+     * Pulls the next process from the streaming source into the table.
+     *
+     * @return The id of the new row, or {@link #IDLE} if the source is exhausted.
+     * @throws UncheckedIOException     If the source cannot be read.
+     * @throws IllegalArgumentException If the process arrives before the previous one.
+     */
+    private int pullNextProcess()
+    {
+        int id;
+        try
+        {
+            id = source.next(table);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        if (id != IDLE && pendingArrival != IDLE
+                && table.arrivalTime[id] < table.arrivalTime[pendingArrival])
+        {
+            throw new IllegalArgumentException("La entrada no esta ordenada por tiempo de llegada: "
+                    + table.label[id]);
+        }
+        return id < 0 ? IDLE : id;
+    }
+
+    /**
+     * Completes a process: calculates its metrics and adds them to the running totals.
+     * In streaming mode the process is handed to the sink and its row released;
+     * otherwise it is recorded for {@link #getResults()}.
+     *
+     * @param p         The id of the process that finished.
+     * @param currentCT The value of the clock when it finished.
+     */
+    private void finish(int p, long currentCT)
+    {
+        table.calculateMetrics(p, currentCT);
+        summary.add(table.waitingTime[p], table.completionTime[p],
+                table.responseTime[p], table.turnAroundTime[p]);
+        finishedCount++;
+        if (sink != null)
+        {
+            sink.accept(table, p);
+            table.release(p);
+        }
+        else
+        {
+            finishedProcesses[finishedCount - 1] = p;
         }
     }
 
     /**
      * Gets the best process ready to run, respecting queue priority
-     * (Q1 > Q2 > Q3).
+     * (Q1 > Q2 > Q3 > ...).
+     * The first non-empty level is the lowest bit set in {@link #nonEmptyLevels}, so the
+     * cost does not depend on the number of levels.
      * Uses {@code peek()} to "to obtain without taking out" on the top of the queue without removing the element.
      *
-     * @return The highest-priority process in the queues, or null if all are empty.
+     * @return The id of the highest-priority process in the queues, or {@link #IDLE} if all are empty.
+     */
+    private int getBetterProcess()
+    {
+        if (nonEmptyLevels == 0) return IDLE;
+        return queues[Long.numberOfTrailingZeros(nonEmptyLevels)].peek();
+    }
+
+    /**
+     * Checks if the best waiting process must take the CPU from the running one.
+     * A process of a higher level always preempts. Inside an SRTF level, a process with
+     * strictly less remaining time also preempts; ties keep the running process.
+     *
+     * @param best The id of the best waiting process.
+     * @return true if the running process must go back to its queue, false otherwise.
      */
-    private Process getBetterProcess()
+    private boolean shouldPreempt(int best)
     {
-        if (!queue1.isEmpty()) return queue1.peek();
-        if (!queue2.isEmpty()) return queue2.peek();
-        if (!queue3.isEmpty()) return queue3.peek();
-        return null;
+        int bestQueue = table.level[best];
+        int runningQueue = table.level[ProcessInCPU];
+        if (bestQueue != runningQueue)
+        {
+            return bestQueue < runningQueue;
+        }
+        return config.getPolicy(runningQueue) == Policy.SRTF
+                && table.remainingBurstTime[best] < table.remainingBurstTime[ProcessInCPU];
     }
 
     /**
@@ -160,41 +749,268 @@ public class SchedulerMLQ
      * It removes the process from its queue (with {@code poll()}) and assigns the
      * quantum corresponding to its queue level.
      *
-     * @param p The process to be dispatched.
+     * @param p The id of the process to be dispatched.
      */
-    private void dispatch(Process p)
+    private void dispatch(int p)
     {
-        if (p.queueId == 1) queue1.poll();
-        else if (p.queueId == 2) queue2.poll();
-        else if (p.queueId == 3) queue3.poll();
+        int level = table.level[p] - 1;
+        queues[level].poll();
+        if (queues[level].isEmpty())
+        {
+            nonEmptyLevels &= ~(1L << level);
+        }
 
         ProcessInCPU = p;
         // The quantum of its queue is assigned
-        remainingQuantum = quantum[p.queueId - 1];
+        remainingQuantum = config.getSliceLimit(level + 1);
+
+        // Loading another process, and saving a preempted one, keeps the CPU busy first
+        if (p != lastDispatched)
+        {
+            switches[level]++;
+            pendingOverhead = config.getSwitchCost();
+            lastDispatched = p;
+        }
+        if (preemptionDue)
+        {
+            pendingOverhead += config.getPreemptionCost();
+            preemptionDue = false;
+        }
     }
 
     /**
      * Returns a process to its corresponding ready queue.
-     * This happens on quantum expiration (for RR) or preemption.
+     * This happens on arrival, quantum expiration or preemption. The process is
+     * re-inserted with the key of its level's policy, computed from its current state,
+     * so a SRTF process comes back ordered by what it has left (O(log n)).
      *
-     * @param p The process that was on the CPU and must return to its queue.
+     * @param p The id of the process that was on the CPU and must return to its queue.
      */
-    private void returnProcessToQueue(Process p)
+    private void returnProcessToQueue(int p)
     {
-        if (p.queueId == 1) queue1.add(p);
-        else if (p.queueId == 2) queue2.add(p);
-        else if (p.queueId == 3) queue3.add(p);
+        int level = table.level[p] - 1;
+        queues[level].add(p, config.getPolicy(level + 1).orderingPriority(table, p));
+        nonEmptyLevels |= 1L << level;
+    }
+
+    /**
+     * In MLFQ mode, moves a process that used up its whole quantum one level down,
+     * unless it is already in the last level.
+     *
+     * @param p The id of the process whose quantum expired.
+     */
+    private void demote(int p)
+    {
+        if (config.isFeedback() && table.level[p] < queues.length)
+        {
+            table.level[p]++;
+        }
+    }
+
+    /**
+     * In MLFQ mode, boosts every process to level 1 when the clock reaches the next boost
+     * (a multiple of the boost interval).
+     * Boosts skipped while the event engine jumped over an idle period had nothing to
+     * move, so they are not replayed.
+     */
+    private void boostIfDue()
+    {
+        if (!config.isFeedback() || actualTime < nextBoost)
+        {
+            return;
+        }
+        long interval = config.getBoostPeriod();
+        if (actualTime % interval == 0)
+        {
+            boost();
+        }
+        nextBoost = (actualTime / interval + 1) * interval;
+    }
+
+    /**
+     * Moves every process to level 1: first the one on the CPU, if it is in a lower level,
+     * then the waiting ones level by level in queue order.
+     * Only the lower levels with processes are visited, found through
+     * {@link #nonEmptyLevels}. A process only leaves level 1 by demotion or by arriving in
+     * a lower queue, so the processes moved are paid for by those earlier events and the
+     * boost costs amortized O(log n) per event.
+     */
+    private void boost()
+    {
+        if (ProcessInCPU != IDLE && table.level[ProcessInCPU] > 1)
+        {
+            table.level[ProcessInCPU] = 1;
+            returnProcessToQueue(ProcessInCPU);
+            ProcessInCPU = IDLE;
+        }
+        long lower = nonEmptyLevels & ~1L;
+        while (lower != 0)
+        {
+            int level = Long.numberOfTrailingZeros(lower);
+            lower &= lower - 1;
+            ReadyQueue queue = queues[level];
+            while (!queue.isEmpty())
+            {
+                int p = queue.poll();
+                table.level[p] = 1;
+                returnProcessToQueue(p);
+            }
+            nonEmptyLevels &= ~(1L << level);
+        }
+    }
+
+    /**
+     * Checks that a process being admitted belongs to one of the configured levels.
+     *
+     * @param p The id of the process.
+     * @throws IllegalArgumentException If its queue does not exist.
+     */
+    private void checkQueue(int p)
+    {
+        int queueId = table.queueId[p];
+        if (queueId < 1 || queueId > queues.length)
+        {
+            throw new IllegalArgumentException("Cola invalida para el proceso " + table.label[p]
+                    + ": " + queueId + " (niveles: 1.." + queues.length + ")");
+        }
+    }
+
+    /**
+     * Creates one empty ready queue per configured level.
+     *
+     * @return The ready queues, level 1 first.
+     */
+    private ReadyQueue[] createQueues()
+    {
+        ReadyQueue[] created = new ReadyQueue[config.getLevels()];
+        for (int i = 0; i < created.length; i++)
+        {
+            created[i] = createQueue(config.getPolicy(i + 1), table);
+        }
+        return created;
+    }
+
+    /**
+     * Creates an empty ready queue suited to a level's policy and to the priorities found
+     * in the input.
+     * An RR level over a small priority domain (like the documented 1 to 5) gets a
+     * {@link BucketReadyQueue} with O(1) operations. SJF and SRTF levels, whose keys are
+     * burst times, and RR levels over wide priority ranges use a {@link HeapReadyQueue}.
+     *
+     * @param policy The policy of the level.
+     * @param table  The table of processes that will be queued.
+     * @return A new, empty ready queue.
+     */
+    static ReadyQueue createQueue(Policy policy, ProcessTable table)
+    {
+        int min = table.getMinPriority();
+        int max = table.getMaxPriority();
+        if (policy == Policy.RR && min <= max && (long) max - min < BucketReadyQueue.MAX_LEVELS)
+        {
+            return new BucketReadyQueue(min, max);
+        }
+        return new HeapReadyQueue(table.size());
+    }
+
+    /**
+     * Gets the running totals of the metrics of the finished processes.
+     * Available in both modes, without a second pass over the results.
+     *
+     * @return The metrics summary.
+     */
+    public MetricsSummary getSummary()
+    {
+        return summary;
+    }
+
+    /**
+     * Gets the number of context switches into a process of a level: dispatches of a
+     * process other than the last one dispatched.
+     *
+     * @param queueId The level, starting at 1.
+     * @return The number of context switches.
+     * @throws IllegalStateException If the configuration does not model overhead.
+     */
+    public long getContextSwitches(int queueId)
+    {
+        checkOverhead();
+        return switches[queueId - 1];
+    }
+
+    /**
+     * Gets the number of times a running process of a level was preempted by a better one.
+     *
+     * @param queueId The level, starting at 1.
+     * @return The number of preemptions.
+     * @throws IllegalStateException If the configuration does not model overhead.
+     */
+    public long getPreemptions(int queueId)
+    {
+        checkOverhead();
+        return preemptions[queueId - 1];
+    }
+
+    /**
+     * Gets the number of times a running process of a level used up its quantum without
+     * finishing.
+     *
+     * @param queueId The level, starting at 1.
+     * @return The number of quantum expiries.
+     * @throws IllegalStateException If the configuration does not model overhead.
+     */
+    public long getQuantumExpiries(int queueId)
+    {
+        checkOverhead();
+        return expiries[queueId - 1];
+    }
+
+    /**
+     * Gets the total time the CPU spent switching context instead of running processes.
+     *
+     * @return The overhead time.
+     * @throws IllegalStateException If the configuration does not model overhead.
+     */
+    public long getOverheadTime()
+    {
+        checkOverhead();
+        return overheadTime;
+    }
+
+    /**
+     * Checks that the counters of the last simulation are complete. They are kept by the
+     * simulation loop, which a closed-form schedule skips unless the configuration
+     * models overhead.
+     *
+     * @throws IllegalStateException If the configuration does not model overhead.
+     */
+    private void checkOverhead()
+    {
+        if (!config.hasOverhead())
+        {
+            throw new IllegalStateException("Los contadores de planificacion requieren una configuracion con coste de cambio de contexto");
+        }
     }
 
     /**
      * Gets the list of all processes that have completed their execution.
+     * The {@code Process} objects are built from the table at this point.
      * The results are sorted by label (A, B, C...) for clean output.
      *
      * @return A list of {@code Process} objects with all their metrics calculated.
      */
     public List<Process> getResults()
     {
-        finishedProcesses.sort(Comparator.comparing(p -> p.label));
-        return finishedProcesses;
+        // In streaming mode the rows were released as the processes finished
+        if (sink != null)
+        {
+            return new ArrayList<>();
+        }
+        List<Process> results = new ArrayList<>(finishedCount);
+        for (int i = 0; i < finishedCount; i++)
+        {
+            results.add(table.toProcess(finishedProcesses[i]));
+        }
+        results.sort(Comparator.comparing(p -> p.label));
+        return results;
     }
 }
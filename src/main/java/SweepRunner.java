@@ -0,0 +1,246 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Simulates one input file under a grid of queue configurations (a parameter sweep).
+ * The file is parsed once; every configuration then runs its own {@link SchedulerMLQ}
+ * on the common fork-join pool over {@link ProcessTable#shareInput()}, which shares the
+ * parsed input instead of copying it, and the arrival order is sorted only once too.
+ * The averages of every configuration are written to a single table, the file
+ * "barrido_" followed by the input file name.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+public class SweepRunner
+{
+    /**
+     * Utility class, not instantiable.
+     */
+    private SweepRunner()
+    {
+    }
+
+    /**
+     * Simulates a file under every configuration of a grid and writes the table of averages.
+     *
+     * @param inputFile The name of the input file.
+     * @param grid      The grid, as described in {@link #parseGrid(String)}.
+     */
+    public static void run(String inputFile, String grid)
+    {
+        List<SchedulerConfig> configs;
+        try
+        {
+            configs = parseGrid(grid);
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            return;
+        }
+
+        ProcessTable workload = Main.readTable(inputFile);
+        if (workload == null)
+        {
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<String> rows = runAll(workload, configs, ForkJoinPool.commonPool());
+        long elapsed = System.nanoTime() - start;
+
+        String outputFile = sweepFileName(inputFile);
+        try (PrintWriter pw = new PrintWriter(new File(outputFile)))
+        {
+            pw.println("# archivo: " + inputFile);
+            pw.println("# politicas; quantum; WT; CT; RT; TAT");
+            for (String row : rows)
+            {
+                pw.print(row);
+                pw.print('\n');
+            }
+            if (pw.checkError())
+            {
+                throw new IOException("no se pudo escribir " + outputFile);
+            }
+        }
+        catch (IOException e)
+        {
+            System.err.println("Error escribiendo el archivo: " + e.getMessage());
+            return;
+        }
+        System.out.printf("Barrido completado: %d configuraciones en %.3f ms. Resultados en: %s\n",
+                configs.size(), elapsed / 1e6, outputFile);
+    }
+
+    /**
+     * Simulates the same processes under many configurations in parallel.
+     *
+     * @param workload The parsed processes; only their input columns are read.
+     * @param configs  The configurations to simulate.
+     * @param pool     The pool that runs the simulations.
+     * @return One table row per configuration, in the same order as {@code configs}.
+     */
+    static List<String> runAll(ProcessTable workload, List<SchedulerConfig> configs, ForkJoinPool pool)
+    {
+        int[] arrivalOrder = SchedulerMLQ.sortByArrival(workload);
+
+        List<ForkJoinTask<String>> tasks = new ArrayList<>(configs.size());
+        for (SchedulerConfig config : configs)
+        {
+            tasks.add(pool.submit(() -> simulate(workload, arrivalOrder, config)));
+        }
+
+        List<String> rows = new ArrayList<>(configs.size());
+        for (ForkJoinTask<String> task : tasks)
+        {
+            rows.add(task.join());
+        }
+        return rows;
+    }
+
+    /**
+     * Simulates the processes under one configuration.
+     *
+     * @param workload     The parsed processes.
+     * @param arrivalOrder The ids of the processes sorted by arrival time.
+     * @param config       The configuration.
+     * @return The table row with the configuration and its averages, or its error.
+     */
+    private static String simulate(ProcessTable workload, int[] arrivalOrder, SchedulerConfig config)
+    {
+        String levels = describe(config);
+        try
+        {
+            SchedulerMLQ simulator = new SchedulerMLQ(workload.shareInput(), config, arrivalOrder);
+            simulator.setEngine(SchedulerMLQ.Engine.EVENT);
+            simulator.simulate();
+
+            MetricsSummary summary = simulator.getSummary();
+            return String.format("%s;%.3f;%.3f;%.3f;%.3f", levels,
+                    summary.getAverageWaitingTime(), summary.getAverageCompletionTime(),
+                    summary.getAverageResponseTime(), summary.getAverageTurnAroundTime());
+        }
+        catch (IllegalArgumentException e)
+        {
+            return levels + "; ERROR: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Expands a grid into every combination of its values.
+     * The grid has one part per level separated by '/', and each part lists the policies
+     * and the quanta to try for that level, separated by ':'. For example
+     * {@code RR:1,2/RR:3/RR,SJF:inf} gives 4 configurations of 3 levels; "inf" means
+     * no quantum. Combinations are listed with the last level changing fastest.
+     *
+     * @param grid The grid.
+     * @return The configurations.
+     * @throws IllegalArgumentException If the grid is malformed or a value is invalid.
+     */
+    static List<SchedulerConfig> parseGrid(String grid)
+    {
+        String[] parts = grid.split("/");
+        String[][] policies = new String[parts.length][];
+        int[][] quanta = new int[parts.length][];
+        for (int level = 0; level < parts.length; level++)
+        {
+            String[] values = parts[level].split(":");
+            if (values.length != 2)
+            {
+                throw new IllegalArgumentException("Rejilla invalida: " + parts[level]
+                        + " (se esperaba politicas:quantums)");
+            }
+            policies[level] = values[0].split(",");
+            String[] q = values[1].split(",");
+            quanta[level] = new int[q.length];
+            for (int i = 0; i < q.length; i++)
+            {
+                try
+                {
+                    quanta[level][i] = q[i].trim().equals("inf") ? Integer.MAX_VALUE : Integer.parseInt(q[i].trim());
+                }
+                catch (NumberFormatException e)
+                {
+                    throw new IllegalArgumentException("Rejilla invalida: quantum " + q[i]);
+                }
+            }
+        }
+
+        List<SchedulerConfig> configs = new ArrayList<>();
+        int[] choice = new int[parts.length * 2];
+        while (true)
+        {
+            String[] levelPolicies = new String[parts.length];
+            int[] levelQuanta = new int[parts.length];
+            for (int level = 0; level < parts.length; level++)
+            {
+                levelPolicies[level] = policies[level][choice[2 * level]];
+                levelQuanta[level] = quanta[level][choice[2 * level + 1]];
+            }
+            configs.add(new SchedulerConfig(levelPolicies, levelQuanta));
+
+            // Next combination, like an odometer: the last digit turns fastest
+            int digit = choice.length - 1;
+            while (digit >= 0)
+            {
+                int options = digit % 2 == 0 ? policies[digit / 2].length : quanta[digit / 2].length;
+                if (++choice[digit] < options)
+                {
+                    break;
+                }
+                choice[digit--] = 0;
+            }
+            if (digit < 0)
+            {
+                return configs;
+            }
+        }
+    }
+
+    /**
+     * Describes the levels of a configuration for the table: the policies and the
+     * quanta, each separated by ','.
+     *
+     * @param config The configuration.
+     * @return The description, such as {@code RR,RR,SJF;1,3,inf}.
+     */
+    private static String describe(SchedulerConfig config)
+    {
+        StringBuilder policies = new StringBuilder();
+        StringBuilder quanta = new StringBuilder();
+        for (int level = 1; level <= config.getLevels(); level++)
+        {
+            if (level > 1)
+            {
+                policies.append(',');
+                quanta.append(',');
+            }
+            policies.append(config.getPolicy(level));
+            int q = config.getQuantum(level);
+            quanta.append(q == Integer.MAX_VALUE ? "inf" : String.valueOf(q));
+        }
+        return policies + ";" + quanta;
+    }
+
+    /**
+     * Gets the name of the table of a sweep: "barrido_" followed by the input file name,
+     * in the same directory as the input.
+     *
+     * @param inputFile The name (or path) of the input file.
+     * @return The name (or path) of the table file.
+     */
+    static String sweepFileName(String inputFile)
+    {
+        Path input = Paths.get(inputFile);
+        return input.resolveSibling("barrido_" + input.getFileName()).toString();
+    }
+}
@@ -0,0 +1,384 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic workload: a {@link ProcessSource} that makes up processes from a seed
+ * instead of reading them from a file.
+ * Arrivals follow a Poisson process or a bursty on/off process, burst times follow a
+ * bounded Pareto distribution (heavy-tailed: most jobs are short, a few are very long),
+ * and queues and priorities are drawn from a configurable mix. The same seed and
+ * settings always give the same processes.
+ * Processes are generated one at a time as they are pulled, so it can feed
+ * {@link SchedulerMLQ} in streaming mode for any number of processes without a file or
+ * a list in memory, or write them to a process definition file with {@link #write(String)}.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+public class WorkloadGenerator implements ProcessSource
+{
+    /** Size of the buffer used by {@link #write(String)}. */
+    private static final int BUFFER_SIZE = 1 << 16;
+    /** Longest line written: a long label and four int fields with their separators. */
+    private static final int MAX_LINE = 128;
+
+    /** Random generator of every attribute. */
+    private final SplittableRandom random;
+    /** Number of processes to generate. */
+    private final long count;
+    /** Number of processes generated so far (also the number in the next label). */
+    private long generated = 0;
+    /** Arrival clock, kept as a double so small gaps add up. */
+    private double clock = 0;
+
+    /** Mean time between arrivals (inside a burst, in bursty mode). */
+    private double meanGap = 4;
+    /** Mean idle time between bursts; 0 for Poisson arrivals. */
+    private double meanIdle = 0;
+    /** Mean number of arrivals in a burst (bursty mode). */
+    private double meanBurstLength = 1;
+
+    /** Shape of the Pareto distribution of burst times (smaller is heavier-tailed). */
+    private double paretoAlpha = 1.5;
+    /** Smallest burst time. */
+    private int minBurst = 1;
+    /** Largest burst time (the tail is cut here). */
+    private int maxBurst = 1000;
+
+    /** Cumulative queue weights: entry {@code i} is the sum of the weights of queues 1 to i + 1. */
+    private double[] cumulativeQueueWeights = {1, 2, 3};
+    /** Lowest priority generated. */
+    private int minPriority = 1;
+    /** Highest priority generated. */
+    private int maxPriority = 5;
+
+    /**
+     * Creates a generator with the default settings: Poisson arrivals every 4 time units
+     * on average, Pareto bursts with shape 1.5 between 1 and 1000, queues 1 to 3 equally
+     * likely and priorities 1 to 5 (a load of about 60% on one CPU).
+     *
+     * @param seed  The seed; the same seed gives the same processes.
+     * @param count The number of processes to generate.
+     * @throws IllegalArgumentException If the count is negative.
+     */
+    public WorkloadGenerator(long seed, long count)
+    {
+        if (count < 0)
+        {
+            throw new IllegalArgumentException("Numero de procesos invalido: " + count);
+        }
+        this.random = new SplittableRandom(seed);
+        this.count = count;
+    }
+
+    /**
+     * Makes arrivals a Poisson process: the time between two arrivals is exponential.
+     *
+     * @param meanGap The mean time between arrivals.
+     * @throws IllegalArgumentException If the mean is not positive.
+     */
+    public void setPoissonArrivals(double meanGap)
+    {
+        checkPositive(meanGap, "tiempo medio entre llegadas");
+        this.meanGap = meanGap;
+        this.meanIdle = 0;
+        this.meanBurstLength = 1;
+    }
+
+    /**
+     * Makes arrivals bursty: bursts of closely spaced arrivals separated by idle periods.
+     * Inside a burst the gaps are exponential with mean {@code meanGap}; after each arrival
+     * the burst ends with probability {@code 1 / meanBurstLength}, and then an exponential
+     * idle period with mean {@code meanIdle} passes before the next burst.
+     *
+     * @param meanGap         The mean time between arrivals inside a burst.
+     * @param meanBurstLength The mean number of arrivals in a burst (at least 1).
+     * @param meanIdle        The mean idle time between bursts.
+     * @throws IllegalArgumentException If a value is out of range.
+     */
+    public void setBurstyArrivals(double meanGap, double meanBurstLength, double meanIdle)
+    {
+        checkPositive(meanGap, "tiempo medio entre llegadas");
+        checkPositive(meanIdle, "tiempo medio de inactividad");
+        if (!(meanBurstLength >= 1))
+        {
+            throw new IllegalArgumentException("Longitud media de rafaga invalida: " + meanBurstLength);
+        }
+        this.meanGap = meanGap;
+        this.meanBurstLength = meanBurstLength;
+        this.meanIdle = meanIdle;
+    }
+
+    /**
+     * Sets the bounded Pareto distribution of the burst times.
+     *
+     * @param alpha    The shape; values near 1 give a heavy tail, large values almost
+     *                 constant bursts.
+     * @param minBurst The smallest burst time (at least 1).
+     * @param maxBurst The largest burst time.
+     * @throws IllegalArgumentException If a value is out of range.
+     */
+    public void setParetoBursts(double alpha, int minBurst, int maxBurst)
+    {
+        checkPositive(alpha, "forma de Pareto");
+        if (minBurst < 1 || maxBurst < minBurst)
+        {
+            throw new IllegalArgumentException("Rango de rafagas invalido: " + minBurst + ".." + maxBurst);
+        }
+        this.paretoAlpha = alpha;
+        this.minBurst = minBurst;
+        this.maxBurst = maxBurst;
+    }
+
+    /**
+     * Sets how likely each queue is: queue {@code i + 1} is chosen with probability
+     * {@code weights[i] / sum(weights)}.
+     *
+     * @param weights The weight of each queue, queue 1 first.
+     * @throws IllegalArgumentException If there are no weights, one is negative or all are 0.
+     */
+    public void setQueueWeights(double... weights)
+    {
+        double[] cumulative = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++)
+        {
+            if (!(weights[i] >= 0))
+            {
+                throw new IllegalArgumentException("Peso de cola invalido: " + weights[i]);
+            }
+            total += weights[i];
+            cumulative[i] = total;
+        }
+        checkPositive(total, "suma de pesos de las colas");
+        this.cumulativeQueueWeights = cumulative;
+    }
+
+    /**
+     * Sets the range of the priorities, which are uniformly distributed.
+     *
+     * @param minPriority The lowest priority.
+     * @param maxPriority The highest priority.
+     * @throws IllegalArgumentException If the range is empty.
+     */
+    public void setPriorityRange(int minPriority, int maxPriority)
+    {
+        if (maxPriority < minPriority)
+        {
+            throw new IllegalArgumentException("Rango de prioridades invalido: "
+                    + minPriority + ".." + maxPriority);
+        }
+        this.minPriority = minPriority;
+        this.maxPriority = maxPriority;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The processes are labelled P0, P1, P2... and come in non-decreasing arrival order.
+     *
+     * @throws IllegalStateException If an arrival time does not fit in a long.
+     */
+    @Override
+    public int next(ProcessTable table)
+    {
+        if (generated == count)
+        {
+            return -1;
+        }
+        long arrival = nextArrival();
+        int burst = nextBurst();
+        int queue = nextQueue();
+        int priority = nextPriority();
+        return table.add("P" + generated++, burst, arrival, queue, priority);
+    }
+
+    /**
+     * Writes the processes still to be generated to a process definition file, in the
+     * same format as the input files. The lines are formatted straight into a byte buffer
+     * and written through a {@link FileChannel}, with no object per process.
+     *
+     * @param fileName The name (or path) of the file to create.
+     * @throws IOException           If the file cannot be written.
+     * @throws IllegalStateException If an arrival time does not fit in a long.
+     */
+    public void write(String fileName) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+        {
+            ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+            buf.put(("# Archivo: " + Paths.get(fileName).getFileName() + "\n"
+                    + "# etiqueta; burst time (BT); arrival time (AT); Queue (Q); Priority (5 > 1)\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            while (generated < count)
+            {
+                if (buf.remaining() < MAX_LINE)
+                {
+                    flush(channel, buf);
+                }
+                long arrival = nextArrival();
+                int burst = nextBurst();
+                int queue = nextQueue();
+                int priority = nextPriority();
+                buf.put((byte) 'P');
+                putNumber(buf, generated++);
+                putField(buf, burst);
+                putField(buf, arrival);
+                putField(buf, queue);
+                putField(buf, priority);
+                buf.put((byte) '\n');
+            }
+            flush(channel, buf);
+        }
+    }
+
+    /**
+     * Gets the arrival time of the next process.
+     *
+     * @return The arrival time.
+     * @throws IllegalStateException If it does not fit in a long.
+     */
+    private long nextArrival()
+    {
+        if (generated > 0)
+        {
+            clock += exponential(meanGap);
+            if (meanIdle > 0 && random.nextDouble() * meanBurstLength < 1)
+            {
+                // The burst ends: an idle period before the next one
+                clock += exponential(meanIdle);
+            }
+        }
+        if (clock >= Long.MAX_VALUE)
+        {
+            throw new IllegalStateException("Tiempo de llegada fuera de rango en el proceso P" + generated);
+        }
+        return (long) clock;
+    }
+
+    /**
+     * Gets the burst time of the next process from the bounded Pareto distribution,
+     * by inverting its distribution function.
+     *
+     * @return The burst time, between {@link #minBurst} and {@link #maxBurst}.
+     */
+    private int nextBurst()
+    {
+        double low = Math.pow(minBurst, -paretoAlpha);
+        double high = Math.pow(maxBurst + 1.0, -paretoAlpha);
+        double x = Math.pow(low - random.nextDouble() * (low - high), -1 / paretoAlpha);
+        return (int) Math.min(x, maxBurst);
+    }
+
+    /**
+     * Gets the queue of the next process from the queue mix.
+     *
+     * @return The queue, starting at 1.
+     */
+    private int nextQueue()
+    {
+        double u = random.nextDouble() * cumulativeQueueWeights[cumulativeQueueWeights.length - 1];
+        int queue = 0;
+        while (queue < cumulativeQueueWeights.length - 1 && u >= cumulativeQueueWeights[queue])
+        {
+            queue++;
+        }
+        return queue + 1;
+    }
+
+    /**
+     * Gets the priority of the next process.
+     *
+     * @return The priority, between {@link #minPriority} and {@link #maxPriority}.
+     */
+    private int nextPriority()
+    {
+        return (int) (minPriority + (long) (random.nextDouble() * ((long) maxPriority - minPriority + 1)));
+    }
+
+    /**
+     * Draws an exponential random time.
+     *
+     * @param mean The mean.
+     * @return The time.
+     */
+    private double exponential(double mean)
+    {
+        return -mean * Math.log(1 - random.nextDouble());
+    }
+
+    /**
+     * Appends "; " and a number to the buffer.
+     *
+     * @param buf   The buffer.
+     * @param value The number.
+     */
+    private static void putField(ByteBuffer buf, long value)
+    {
+        buf.put((byte) ';');
+        buf.put((byte) ' ');
+        putNumber(buf, value);
+    }
+
+    /**
+     * Appends the decimal digits of a number to the buffer.
+     *
+     * @param buf   The buffer.
+     * @param value The number.
+     */
+    private static void putNumber(ByteBuffer buf, long value)
+    {
+        if (value < 0)
+        {
+            buf.put((byte) '-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10)
+        {
+            divisor *= 10;
+        }
+        while (divisor > 0)
+        {
+            buf.put((byte) ('0' + value / divisor % 10));
+            divisor /= 10;
+        }
+    }
+
+    /**
+     * Writes the content of the buffer to the channel and empties it.
+     *
+     * @param channel The file channel.
+     * @param buf     The buffer.
+     * @throws IOException If the file cannot be written.
+     */
+    private static void flush(FileChannel channel, ByteBuffer buf) throws IOException
+    {
+        buf.flip();
+        while (buf.hasRemaining())
+        {
+            channel.write(buf);
+        }
+        buf.clear();
+    }
+
+    /**
+     * Checks that a setting is a positive number.
+     *
+     * @param value The value.
+     * @param name  The name of the setting, for the error message.
+     * @throws IllegalArgumentException If it is not positive (or is NaN).
+     */
+    private static void checkPositive(double value, String name)
+    {
+        if (!(value > 0))
+        {
+            throw new IllegalArgumentException("Valor invalido para " + name + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that a warmed-up simulator runs {@link SchedulerMLQ#reset()} followed by
+ * {@link SchedulerMLQ#simulate()} without allocating, on both engines. The trace has
+ * varied arrivals over several queues, so the analytic fast path never takes it and the
+ * simulation loop runs every time.
+ *
+ * @author Santiago Duque
+ * @version 1.0
+ */
+class SchedulerMLQAllocationTest
+{
+    /** Number of processes in the trace. */
+    private static final int PROCESSES = 2000;
+    /** Runs before measuring, so the queues reach their working size and the JIT settles. */
+    private static final int WARM_UP_RUNS = 200;
+
+    @Test
+    void defaultConfigDoesNotAllocate()
+    {
+        assertNoAllocation(SchedulerConfig.defaults());
+    }
+
+    @Test
+    void feedbackConfigDoesNotAllocate()
+    {
+        assertNoAllocation(SchedulerConfig.defaults().withFeedback(50));
+    }
+
+    @Test
+    void overheadConfigDoesNotAllocate()
+    {
+        assertNoAllocation(SchedulerConfig.defaults().withOverhead(1, 1));
+    }
+
+    /**
+     * Warms a simulator up and measures the bytes the current thread allocates in one
+     * more reset and simulation, for every engine.
+     *
+     * @param config The levels with their policies and quanta.
+     */
+    private static void assertNoAllocation(SchedulerConfig config)
+    {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "La JVM no mide la memoria por hilo");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().threadId();
+
+        for (SchedulerMLQ.Engine engine : SchedulerMLQ.Engine.values())
+        {
+            SchedulerMLQ scheduler = new SchedulerMLQ(buildTrace(), config);
+            scheduler.setEngine(engine);
+            for (int run = 0; run < WARM_UP_RUNS; run++)
+            {
+                scheduler.reset();
+                scheduler.simulate();
+            }
+
+            long before = threads.getThreadAllocatedBytes(threadId);
+            scheduler.reset();
+            scheduler.simulate();
+            long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+            assertEquals(0, allocated, "Bytes reservados por reset() y simulate() con el motor " + engine);
+        }
+    }
+
+    /**
+     * Builds a trace with varied bursts and arrivals spread over the three default queues.
+     *
+     * @return The table of processes.
+     */
+    private static ProcessTable buildTrace()
+    {
+        ProcessTable table = new ProcessTable(PROCESSES);
+        for (int i = 0; i < PROCESSES; i++)
+        {
+            table.add("P" + i, 1 + (i * 7) % 23, (i * 3) % 500, 1 + i % 3, 1 + i % 5);
+        }
+        return table;
+    }
+}